@@ -0,0 +1,57 @@
+package com.maksymchernenko.reserveit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration class that provides the executor for searching available tables across restaurants.
+ * <p>
+ * The executor is bounded, so a search can not use more database connections than its pool size.
+ */
+@Configuration
+public class AvailabilitySearchConfig {
+
+    /**
+     * Defines the executor running availability checks of single restaurants.
+     * <p>
+     * When virtual threads are enabled, every check runs in a new virtual thread and the pool size
+     * limits the number of concurrent checks. Otherwise the checks run in a fixed thread pool
+     * and are rejected when its queue is full, so they never run in the calling thread
+     * past the search timeout.
+     *
+     * @param poolSize      the number of threads or concurrent checks
+     * @param queueCapacity the maximum number of waiting checks of the thread pool
+     * @param environment   the environment used to check whether virtual threads are enabled
+     * @return a {@link SimpleAsyncTaskExecutor} with virtual threads or a {@link ThreadPoolTaskExecutor}
+     * with a fixed number of threads
+     */
+    @Bean
+    public TaskExecutor availabilitySearchExecutor(@Value("${reserveit.availability.search.pool-size:8}") int poolSize,
+                                                   @Value("${reserveit.availability.search.queue-capacity:1000}") int queueCapacity,
+                                                   Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("availability-search-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("availability-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.maksymchernenko.reserveit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class that enables scheduled background tasks of the application.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,25 +2,27 @@ package com.maksymchernenko.reserveit.controller;
 
 import com.maksymchernenko.reserveit.exceptions.UserNotFoundException;
 import com.maksymchernenko.reserveit.model.Reservation;
-import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.AvailableDayDTO;
+import com.maksymchernenko.reserveit.model.dto.ReservationPageDTO;
+import com.maksymchernenko.reserveit.model.dto.SlotHoldDTO;
+import com.maksymchernenko.reserveit.service.AvailabilitySearchService;
+import com.maksymchernenko.reserveit.service.IdempotencyService;
 import com.maksymchernenko.reserveit.service.ReservationService;
 import com.maksymchernenko.reserveit.service.RestaurantService;
 import com.maksymchernenko.reserveit.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Controller responsible for handling reservation-related actions to view actual reservations
@@ -37,40 +39,54 @@ public class ClientReservationController {
     private final UserService userService;
     private final ReservationService reservationService;
     private final RestaurantService restaurantService;
+    private final AvailabilitySearchService availabilitySearchService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Instantiates a new Client reservation controller.
      *
-     * @param userService        the {@link UserService}
-     * @param reservationService the {@link ReservationService}
-     * @param restaurantService  the {@link RestaurantService}
+     * @param userService               the {@link UserService}
+     * @param reservationService        the {@link ReservationService}
+     * @param restaurantService         the {@link RestaurantService}
+     * @param availabilitySearchService the {@link AvailabilitySearchService}
+     * @param idempotencyService        the {@link IdempotencyService}
      */
     @Autowired
     public ClientReservationController(UserService userService,
                                        ReservationService reservationService,
-                                       RestaurantService restaurantService) {
+                                       RestaurantService restaurantService,
+                                       AvailabilitySearchService availabilitySearchService,
+                                       IdempotencyService idempotencyService) {
         this.userService = userService;
         this.reservationService = reservationService;
         this.restaurantService = restaurantService;
+        this.availabilitySearchService = availabilitySearchService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
-     * Displays actual user reservations page.
+     * Displays a page of actual user reservations.
      *
      * @param model          the model to bind attributes for the view
      * @param authentication the authentication instance containing the current user
+     * @param after          the cursor of the previous page end, the first page if both cursors are absent
+     * @param before         the cursor of the next page start
      * @return the list of actual user reservations page view name on success,
      * redirect to logout if the user is not found otherwise
      */
     @GetMapping
     public String getReservationsPage(Model model,
-                                      Authentication authentication) {
+                                      Authentication authentication,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) String before) {
         logger.info("GET /client/reservations called");
 
         try {
             User client = userService.getByEmail(authentication.getName());
 
-            model.addAttribute("reservations", reservationService.getActualByClient(client));
+            ReservationPageDTO page = reservationService.getActualByClient(client, after, before);
+            model.addAttribute("reservations", page.getReservations());
+            model.addAttribute("page", page);
 
             logger.info("Reservations page rendered for client");
 
@@ -102,23 +118,24 @@ public class ClientReservationController {
 
     /**
      * Submits the choice of the restaurant for a reservation.
+     * <p>
+     * Available times are shown one day at a time, other days are loaded on demand.
      *
      * @param restaurantId   the restaurant id
      * @param numberOfGuests the number of guests
+     * @param day            the day to show available times for, the first day of the reservation period if absent
      * @param model          the model to bind attributes for the view
      * @return the reservation creation page view name
      */
     @PostMapping("/create/submitrestaurant")
     public String submitRestaurant(@RequestParam Long restaurantId,
                                    @RequestParam Integer numberOfGuests,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
                                    Model model) {
-        Map<RestaurantTable, List<LocalDateTime>> availableTables =
-                reservationService.getAvailableTablesMap(restaurantId, numberOfGuests);
-        List<LocalDateTime> availableTimes = new ArrayList<>();
+        AvailableDayDTO availableDay = reservationService.getAvailableDay(restaurantId, numberOfGuests, day);
 
-        fillAndSortTimes(availableTables, availableTimes);
-
-        model.addAttribute("availableTimes", availableTimes);
+        model.addAttribute("availableDay", availableDay);
+        model.addAttribute("availableTimes", availableDay.getAvailableTimes());
         model.addAttribute("restaurantId", restaurantId);
         model.addAttribute("numberOfGuests", numberOfGuests);
 
@@ -128,12 +145,103 @@ public class ClientReservationController {
         return "client/create_reservation";
     }
 
+    /**
+     * Displays a page for searching a table across all restaurants.
+     *
+     * @param model the model to bind attributes for the view
+     * @return the search page view name
+     */
+    @GetMapping("/search")
+    public String getSearchPage(Model model) {
+        model.addAttribute("results", null);
+
+        logger.info("GET /client/reservations/search called");
+        logger.info("Search page rendered");
+
+        return "client/search_reservation";
+    }
+
+    /**
+     * Searches restaurants with a free table around a requested time.
+     *
+     * @param dateTime       the requested date and time
+     * @param windowMinutes  the maximum number of minutes between the requested time and a found time
+     * @param numberOfGuests the number of guests
+     * @param model          the model to bind attributes for the view
+     * @return the search page view name
+     */
+    @PostMapping("/search")
+    public String search(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateTime,
+                         @RequestParam Integer windowMinutes,
+                         @RequestParam Integer numberOfGuests,
+                         Model model) {
+        logger.info("POST /client/reservations/search called");
+
+        model.addAttribute("results", availabilitySearchService.search(dateTime, windowMinutes, numberOfGuests));
+        model.addAttribute("numberOfGuests", numberOfGuests);
+
+        logger.info("Search page update rendered");
+
+        return "client/search_reservation";
+    }
+
+    /**
+     * Holds a table at the chosen time for a short time and displays the reservation confirmation.
+     * <p>
+     * If no table is available anymore, available times of the chosen day are displayed again.
+     *
+     * @param dateTime       the date and time
+     * @param numberOfGuests the number of guests
+     * @param restaurantId   the restaurant id
+     * @param model          the model to bind attributes for the view
+     * @param authentication the authentication instance containing the current user
+     * @return the reservation creation page view name on success,
+     * redirect to logout if the user is not found otherwise
+     */
+    @PostMapping("/create/hold")
+    public String holdTable(@RequestParam LocalDateTime dateTime,
+                            @RequestParam Integer numberOfGuests,
+                            @RequestParam Long restaurantId,
+                            Model model,
+                            Authentication authentication) {
+        logger.info("POST /client/reservations/create/hold called");
+
+        try {
+            User client = userService.getByEmail(authentication.getName());
+
+            SlotHoldDTO hold = reservationService.holdTable(restaurantId, dateTime, numberOfGuests, client);
+            if (hold == null) {
+                model.addAttribute("message", "Holding failed");
+
+                logger.warn("Table holding failed");
+
+                return submitRestaurant(restaurantId, numberOfGuests, dateTime.toLocalDate(), model);
+            }
+
+            model.addAttribute("hold", hold);
+            model.addAttribute("idempotencyKey", idempotencyService.newKey());
+
+            logger.info("Reservation confirmation page rendered");
+
+            return "client/create_reservation";
+        } catch (UserNotFoundException e) {
+            logger.warn("Table holding failed. User with email = {} does not exist. " +
+                    "Redirecting to logout", authentication.getName());
+
+            return "redirect:/user/logout";
+        }
+    }
+
     /**
      * Creates a new reservation.
+     * <p>
+     * A replayed submission with the same idempotency key returns the original outcome without reserving again.
      *
      * @param dateTime           the date and time
      * @param numberOfGuests     the number of guests
      * @param restaurantId       the restaurant id
+     * @param holdId             the id of the table hold, may be absent
+     * @param idempotencyKey     the idempotency key of the submitted form, may be absent
      * @param authentication     the authentication instance containing the current user
      * @param redirectAttributes the redirect attributes used to pass a message either the reservation is created on redirect
      * @return redirect to the list of actual user reservations on success,
@@ -143,6 +251,8 @@ public class ClientReservationController {
     public String createReservation(@RequestParam LocalDateTime dateTime,
                                     @RequestParam Integer numberOfGuests,
                                     @RequestParam Long restaurantId,
+                                    @RequestParam(required = false) String holdId,
+                                    @RequestParam(required = false) String idempotencyKey,
                                     Authentication authentication,
                                     RedirectAttributes redirectAttributes) {
         logger.info("POST /client/reservations/create called");
@@ -150,7 +260,8 @@ public class ClientReservationController {
         try {
             User client = userService.getByEmail(authentication.getName());
 
-            if (!reservationService.reserve(restaurantId, dateTime, numberOfGuests, client)) {
+            if (!idempotencyService.execute(client, idempotencyKey, "reservation.create",
+                    () -> reservationService.reserve(restaurantId, dateTime, numberOfGuests, client, holdId))) {
                 redirectAttributes.addFlashAttribute("message", "Creating failed");
 
                 logger.warn("Reservation creation failed");
@@ -188,36 +299,30 @@ public class ClientReservationController {
 
     /**
      * Updates the number of guests in the reservation.
+     * <p>
+     * Available times are shown one day at a time, other days are loaded on demand.
      *
      * @param id             the reservation id
      * @param numberOfGuests the new number of guests
+     * @param day            the day to show available times for, the day of the reservation if absent
      * @param model          the model to bind attributes for the view
      * @return the edit reservation page view name
      */
     @PostMapping("/{id}/edit/guestsnumber")
     public String editNumberOfGuests(@PathVariable Long id,
                                      @RequestParam Integer numberOfGuests,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
                                      Model model) {
         logger.info("POST /client/reservations/{id}/edit/guestsnumber called");
 
         Reservation reservation = reservationService.getReservation(id);
+        AvailableDayDTO availableDay = reservationService.getAvailableDay(reservation, numberOfGuests, day);
 
-        Map<RestaurantTable, List<LocalDateTime>> availableTables =
-                reservationService.getAvailableTablesMap(reservation.getTable().getRestaurant().getId(), numberOfGuests);
-
-        List<LocalDateTime> availableTimes = new ArrayList<>();
-
-        if (reservation.getTable().getSeatsNumber() >= numberOfGuests) {
-            for (int i = 0; i <= ReservationService.RESERVATION_DURATION_OF_HOURS * 60; i += 15) {
-                availableTimes.add(reservation.getDayTime().plusMinutes(i));
-            }
-        }
-
-        fillAndSortTimes(availableTables, availableTimes);
-
-        model.addAttribute("availableTimes", availableTimes);
+        model.addAttribute("availableDay", availableDay);
+        model.addAttribute("availableTimes", availableDay.getAvailableTimes());
         model.addAttribute("numberOfGuests", numberOfGuests);
         model.addAttribute("reservation", reservation);
+        model.addAttribute("idempotencyKey", idempotencyService.newKey());
 
         logger.info("Reservation editing page update rendered");
 
@@ -226,33 +331,46 @@ public class ClientReservationController {
 
     /**
      * Updates the reservation.
+     * <p>
+     * A replayed submission with the same idempotency key returns the original outcome without updating again.
      *
      * @param id                 the reservation id
      * @param dateTime           the new date and time
      * @param numberOfGuests     the new number of guests
+     * @param idempotencyKey     the idempotency key of the submitted form, may be absent
+     * @param authentication     the authentication instance containing the current user
      * @param redirectAttributes the redirect attributes used to pass a message either the reservation is updated on redirect
-     * @return redirect to the list of actual user reservations
+     * @return redirect to the list of actual user reservations,
+     * redirect to logout if the user is not found
      */
     @PostMapping("/{id}/edit")
     public String editReservation(@PathVariable Long id,
                                   @RequestParam LocalDateTime dateTime,
                                   @RequestParam Integer numberOfGuests,
+                                  @RequestParam(required = false) String idempotencyKey,
+                                  Authentication authentication,
                                   RedirectAttributes redirectAttributes) {
         logger.info("POST /client/reservations/{id}/edit called");
 
-        Reservation reservation = reservationService.getReservation(id);
-        reservation.setGuestsNumber(numberOfGuests);
-        reservation.setDayTime(dateTime);
+        try {
+            User client = userService.getByEmail(authentication.getName());
 
-        if (!reservationService.updateReservation(reservation)) {
-            redirectAttributes.addFlashAttribute("message", "Updating failed");
+            if (!idempotencyService.execute(client, idempotencyKey, "reservation.edit." + id,
+                    () -> reservationService.updateReservation(id, dateTime, numberOfGuests))) {
+                redirectAttributes.addFlashAttribute("message", "Updating failed");
 
-            logger.warn("Reservation update failed");
-        }
+                logger.warn("Reservation update failed");
+            }
 
-        logger.info("Redirecting to all reservations page after update");
+            logger.info("Redirecting to all reservations page after update");
 
-        return "redirect:/client/reservations";
+            return "redirect:/client/reservations";
+        } catch (UserNotFoundException e) {
+            logger.warn("Reservation update failed. User with email = {} does not exist. " +
+                    "Redirecting to logout", authentication.getName());
+
+            return "redirect:/user/logout";
+        }
     }
 
     /**
@@ -273,21 +391,27 @@ public class ClientReservationController {
     }
 
     /**
-     * Displays reservation history page.
+     * Displays a page of the reservation history.
      *
      * @param model          the model to bind attributes for the view
      * @param authentication the authentication instance containing the current user
+     * @param after          the cursor of the previous page end, the first page if both cursors are absent
+     * @param before         the cursor of the next page start
      * @return the reservation history page on success,
      * redirect to logout if the user is not found otherwise
      */
     @GetMapping("/history")
     public String getReservationHistoryPage(Model model,
-                                            Authentication authentication) {
+                                            Authentication authentication,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(required = false) String before) {
         logger.info("GET /client/reservations/history called");
 
         try {
             User client = userService.getByEmail(authentication.getName());
-            model.addAttribute("reservations", reservationService.getHistoryByClient(client));
+            ReservationPageDTO page = reservationService.getHistoryByClient(client, after, before);
+            model.addAttribute("reservations", page.getReservations());
+            model.addAttribute("page", page);
 
             logger.info("Reservation history page rendered");
 
@@ -299,18 +423,4 @@ public class ClientReservationController {
             return "redirect:/user/logout";
         }
     }
-
-    private static void fillAndSortTimes(Map<RestaurantTable,
-                                         List<LocalDateTime>> tablesMap,
-                                         List<LocalDateTime> targetList) {
-        for (List<LocalDateTime> list : tablesMap.values()) {
-            for (LocalDateTime time : list) {
-                if (!targetList.contains(time)) {
-                    targetList.add(time);
-                }
-            }
-        }
-
-        targetList.sort(Comparator.naturalOrder());
-    }
 }
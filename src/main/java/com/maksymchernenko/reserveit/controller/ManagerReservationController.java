@@ -2,19 +2,38 @@ package com.maksymchernenko.reserveit.controller;
 
 import com.maksymchernenko.reserveit.exceptions.UserNotFoundException;
 import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.ReservationPageDTO;
+import com.maksymchernenko.reserveit.service.ReservationExportService;
 import com.maksymchernenko.reserveit.service.ReservationService;
 import com.maksymchernenko.reserveit.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Controller responsible for handling reservation-related actions
- * to view, filter, submit and cancel reservations.
+ * to view, filter and export reservations, submit and cancel them one by one or in bulk.
  * <p>
  * Provides endpoints for managers.
  */
@@ -26,36 +45,59 @@ public class ManagerReservationController {
 
     private final ReservationService reservationService;
     private final UserService userService;
+    private final ReservationExportService reservationExportService;
+    private final long exportTimeoutMillis;
 
     /**
      * Instantiates a new Manager reservation controller.
      *
-     * @param reservationService the {@link ReservationService}
-     * @param userService        the {@link UserService}
+     * @param reservationService       the {@link ReservationService}
+     * @param userService              the {@link UserService}
+     * @param reservationExportService the {@link ReservationExportService}
+     * @param exportTimeoutMillis      the maximum duration of an export in milliseconds
      */
     @Autowired
     public ManagerReservationController(ReservationService reservationService,
-                                        UserService userService) {
+                                        UserService userService,
+                                        ReservationExportService reservationExportService,
+                                        @Value("${reserveit.reservation.export.timeout-millis:1800000}") long exportTimeoutMillis) {
         this.reservationService = reservationService;
         this.userService = userService;
+        this.reservationExportService = reservationExportService;
+        this.exportTimeoutMillis = exportTimeoutMillis;
     }
 
     /**
-     * Displays all reservations page.
+     * Displays a page of all reservations sorted by one of the attributes within a period of days.
      *
-     * @param model          the model to bind attributes for the view
-     * @param authentication the authentication instance containing the current user
+     * @param model           the model to bind attributes for the view
+     * @param authentication  the authentication instance containing the current user
+     * @param filterAttribute the filter attribute
+     * @param from            the first day, upcoming and ongoing reservations if absent
+     * @param to              the last day, no end if absent
+     * @param after           the cursor of the previous page end, the first page if both cursors are absent
+     * @param before          the cursor of the next page start
      * @return the list of all reservations page view name on success,
      * redirect to logout if the user is not found otherwise
      */
     @GetMapping
     public String getReservationsPage(Model model,
-                                      Authentication authentication) {
+                                      Authentication authentication,
+                                      @RequestParam(defaultValue = "default") String filterAttribute,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) String before) {
         logger.info("GET /manager/reservations called");
 
         try {
             User manager = userService.getByEmail(authentication.getName());
-            model.addAttribute("reservations", reservationService.getAll("default", manager));
+            ReservationPageDTO page = reservationService.getAll(filterAttribute, manager, from, to, after, before);
+            model.addAttribute("reservations", page.getReservations());
+            model.addAttribute("page", page);
+            model.addAttribute("filterAttribute", filterAttribute);
+            model.addAttribute("from", from);
+            model.addAttribute("to", to);
 
             logger.info("All reservations page rendered for manager");
 
@@ -69,32 +111,49 @@ public class ManagerReservationController {
     }
 
     /**
-     * Filters reservations by one of the attributes.
+     * Exports reservations within a period of days as a CSV file.
+     * <p>
+     * The file is written to the response while the reservations are read. The export has its own
+     * timeout instead of the default timeout of asynchronous requests.
      *
-     * @param model           the model to bind attributes for the view
-     * @param authentication  the authentication instance containing the current user
-     * @param filterAttribute the filter attribute
-     * @return the list of all sorted reservations page view name on success,
+     * @param request        the request whose asynchronous timeout is set
+     * @param authentication the authentication instance containing the current user
+     * @param from           the first day, no start if absent
+     * @param to             the last day, no end if absent
+     * @return the CSV file response on success,
      * redirect to logout if the user is not found otherwise
      */
-    @PostMapping("/filter")
-    public String filterReservations(Model model,
-                                     Authentication authentication,
-                                     @RequestParam String filterAttribute) {
-        logger.info("POST /manager/reservations/filter called");
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(HttpServletRequest request,
+                                                                    Authentication authentication,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("GET /manager/reservations/export called");
 
         try {
             User manager = userService.getByEmail(authentication.getName());
-            model.addAttribute("reservations", reservationService.getAll(filterAttribute, manager));
 
-            logger.info("All reservations page rendered with filter for manager");
+            AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+            if (asyncWebRequest != null) {
+                asyncWebRequest.setTimeout(exportTimeoutMillis);
+            }
 
-            return "manager/reservations";
+            logger.info("Reservations export started for manager");
+
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("reservations.csv")
+                            .build()
+                            .toString())
+                    .body(outputStream -> reservationExportService.exportCsv(manager, from, to, outputStream));
         } catch (UserNotFoundException e) {
-            logger.warn("Getting reservations with filter failed. User with email = {} does not exist. " +
+            logger.warn("Exporting reservations failed. User with email = {} does not exist. " +
                     "Redirecting to logout", authentication.getName());
 
-            return "redirect:/user/logout";
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create("/user/logout"))
+                    .build();
         }
     }
 
@@ -142,4 +201,66 @@ public class ManagerReservationController {
 
         return "redirect:/manager/reservations";
     }
+
+    /**
+     * Submits the selected reservations.
+     *
+     * @param ids                the selected reservation ids, may be absent if nothing is selected
+     * @param authentication     the authentication instance containing the current user
+     * @param redirectAttributes the redirect attributes used to pass the number of submitted reservations on redirect
+     * @return redirect to the list of all reservations on success,
+     * redirect to logout if the user is not found otherwise
+     */
+    @PostMapping("/bulk/submit")
+    public String submitReservations(@RequestParam(required = false) List<Long> ids,
+                                     Authentication authentication,
+                                     RedirectAttributes redirectAttributes) {
+        logger.info("POST /manager/reservations/bulk/submit called");
+
+        try {
+            User manager = userService.getByEmail(authentication.getName());
+            redirectAttributes.addFlashAttribute("updatedNumber",
+                    reservationService.submitReservations(ids == null ? List.of() : ids, manager));
+
+            logger.info("Redirecting to all reservations page after bulk submit");
+
+            return "redirect:/manager/reservations";
+        } catch (UserNotFoundException e) {
+            logger.warn("Bulk submit failed. User with email = {} does not exist. " +
+                    "Redirecting to logout", authentication.getName());
+
+            return "redirect:/user/logout";
+        }
+    }
+
+    /**
+     * Cancels the selected reservations.
+     *
+     * @param ids                the selected reservation ids, may be absent if nothing is selected
+     * @param authentication     the authentication instance containing the current user
+     * @param redirectAttributes the redirect attributes used to pass the number of cancelled reservations on redirect
+     * @return redirect to the list of all reservations on success,
+     * redirect to logout if the user is not found otherwise
+     */
+    @PostMapping("/bulk/cancel")
+    public String cancelReservations(@RequestParam(required = false) List<Long> ids,
+                                     Authentication authentication,
+                                     RedirectAttributes redirectAttributes) {
+        logger.info("POST /manager/reservations/bulk/cancel called");
+
+        try {
+            User manager = userService.getByEmail(authentication.getName());
+            redirectAttributes.addFlashAttribute("updatedNumber",
+                    reservationService.cancelReservations(ids == null ? List.of() : ids, manager));
+
+            logger.info("Redirecting to all reservations page after bulk cancel");
+
+            return "redirect:/manager/reservations";
+        } catch (UserNotFoundException e) {
+            logger.warn("Bulk cancel failed. User with email = {} does not exist. " +
+                    "Redirecting to logout", authentication.getName());
+
+            return "redirect:/user/logout";
+        }
+    }
 }
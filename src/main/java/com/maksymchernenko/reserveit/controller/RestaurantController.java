@@ -4,6 +4,7 @@ import com.maksymchernenko.reserveit.exceptions.RestaurantAlreadyExistsException
 import com.maksymchernenko.reserveit.model.Restaurant;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.WorkingTime;
+import com.maksymchernenko.reserveit.service.ReservationService;
 import com.maksymchernenko.reserveit.service.RestaurantService;
 import com.maksymchernenko.reserveit.service.RestaurantTableService;
 import com.maksymchernenko.reserveit.service.WorkingTimeService;
@@ -284,6 +285,8 @@ public class RestaurantController {
         newRestaurant.setId(id);
         newRestaurant.setName(restaurant.getName());
         newRestaurant.setAddress(restaurant.getAddress());
+        newRestaurant.setAllocationStrategy(restaurant.getAllocationStrategy());
+        newRestaurant.setReservationDays(restaurant.getReservationDays());
 
         model.addAttribute("tables", tables);
         model.addAttribute("newRestaurant", newRestaurant);
@@ -315,6 +318,14 @@ public class RestaurantController {
         Restaurant restaurant = restaurantService.getRestaurant(id);
         restaurant.setName(newRestaurant.getName());
         restaurant.setAddress(newRestaurant.getAddress());
+        if (newRestaurant.getAllocationStrategy() != null) {
+            restaurant.setAllocationStrategy(newRestaurant.getAllocationStrategy());
+        }
+        if (newRestaurant.getReservationDays() == null
+                || newRestaurant.getReservationDays() >= 1
+                && newRestaurant.getReservationDays() <= ReservationService.MAX_AVAILABLE_DAYS_FOR_RESERVATION) {
+            restaurant.setReservationDays(newRestaurant.getReservationDays());
+        }
         restaurantService.updateRestaurant(restaurant);
 
         redirectAttributes.addAttribute("id", restaurant.getId());
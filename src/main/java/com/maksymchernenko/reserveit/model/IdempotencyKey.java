@@ -0,0 +1,79 @@
+package com.maksymchernenko.reserveit.model;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the outcome of a request submitted with an idempotency key.
+ * <p>
+ * A key is rendered into a form once and stored with the outcome of the first submission,
+ * so replays of the same submission return the stored outcome instead of being processed again.
+ * Keys are unique per client, so a key submitted by another client is not replayed.
+ */
+@NoArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "idempotency_key",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_key_client_request_key",
+                columnNames = {"client_id", "request_key"}),
+        indexes = @Index(name = "idx_idempotency_key_created_at", columnList = "created_at"))
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "request_key", length = 36, nullable = false)
+    private String requestKey;
+
+    @Column(name = "operation", nullable = false)
+    private String operation;
+
+    @Column(name = "result", nullable = false)
+    private boolean result;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Instantiates a new Idempotency key.
+     *
+     * @param clientId   the id of the client who submitted the key
+     * @param requestKey the key
+     * @param operation  the operation the key was submitted to
+     * @param result     the outcome of the operation
+     * @param createdAt  the date and time the operation was processed
+     */
+    public IdempotencyKey(Long clientId,
+                          String requestKey,
+                          String operation,
+                          boolean result,
+                          LocalDateTime createdAt) {
+        this.clientId = clientId;
+        this.requestKey = requestKey;
+        this.operation = operation;
+        this.result = result;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyKey{" +
+                "id=" + id +
+                ", clientId=" + clientId +
+                ", requestKey='" + requestKey + '\'' +
+                ", operation='" + operation + '\'' +
+                ", result=" + result +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
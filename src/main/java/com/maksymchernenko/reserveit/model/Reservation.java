@@ -1,5 +1,6 @@
 package com.maksymchernenko.reserveit.model;
 
+import com.maksymchernenko.reserveit.service.ReservationService;
 import jakarta.persistence.*;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -14,12 +15,22 @@ import java.time.LocalDateTime;
  * Has relationships with {@link RestaurantTable}, {@link User} (client),
  * {@link User} (manager), and stores {@link Status}, date, time
  * and number of guests.
+ * <p>
+ * Is versioned, so concurrent updates of the same reservation are detected on commit.
+ * The {@link Status#FINISHED} status may be derived from the time instead of being stored,
+ * see {@link #getEffectiveStatus(LocalDateTime)}.
  */
 @NoArgsConstructor
 @Setter
 @Getter
 @Entity
-@Table(name = "reservation")
+@Table(name = "reservation",
+        indexes = {
+                @Index(name = "idx_reservation_table_day_time_status", columnList = "table_id, day_time, status"),
+                @Index(name = "idx_reservation_status_day_time", columnList = "status, day_time"),
+                @Index(name = "idx_reservation_manager_day_time", columnList = "manager_id, day_time"),
+                @Index(name = "idx_reservation_client_day_time", columnList = "client_id, day_time")
+        })
 public class Reservation {
 
     @Id
@@ -46,6 +57,9 @@ public class Reservation {
     @Column(name = "guests_number")
     private Integer guestsNumber;
 
+    @Version
+    private long version;
+
     /**
      * Instantiates a new Reservation.
      *
@@ -70,6 +84,49 @@ public class Reservation {
         this.guestsNumber = guestsNumber;
     }
 
+    /**
+     * Gets the effective status at the current time.
+     *
+     * @return the effective status
+     * @see #getEffectiveStatus(LocalDateTime)
+     */
+    public Status getEffectiveStatus() {
+        return getEffectiveStatus(LocalDateTime.now());
+    }
+
+    /**
+     * Gets the effective status at a given time.
+     * <p>
+     * A reserved reservation which ended before the given time is {@link Status#FINISHED},
+     * whether or not the status is already stored.
+     *
+     * @param now the time
+     * @return the effective status
+     */
+    public Status getEffectiveStatus(LocalDateTime now) {
+        return getEffectiveStatus(status, dayTime, now);
+    }
+
+    /**
+     * Gets the effective status of a reservation with a given stored status and date and time.
+     *
+     * @param status  the stored status
+     * @param dayTime the reservation date and time
+     * @param now     the time
+     * @return the effective status
+     * @see #getEffectiveStatus(LocalDateTime)
+     */
+    public static Status getEffectiveStatus(Status status,
+                                            LocalDateTime dayTime,
+                                            LocalDateTime now) {
+        if (status == Status.RESERVED
+                && dayTime.plusHours(ReservationService.RESERVATION_DURATION_OF_HOURS).isBefore(now)) {
+            return Status.FINISHED;
+        }
+
+        return status;
+    }
+
     /**
      * Represents a reservation status in the system.
      */
@@ -102,6 +159,7 @@ public class Reservation {
                 ", status=" + status +
                 ", dayTime=" + dayTime +
                 ", guestsNumber=" + guestsNumber +
+                ", version=" + version +
                 ", id=" + id +
                 '}';
     }
@@ -0,0 +1,50 @@
+package com.maksymchernenko.reserveit.model;
+
+import jakarta.persistence.*;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a time slot of a {@link RestaurantTable} occupied by an active {@link Reservation}.
+ * <p>
+ * A reservation occupies one row per slot from its start to its end inclusively.
+ * The unique constraint on table id and slot start prevents double booking on the database level.
+ * The table id is stored without a foreign key, so restaurant tables can be deleted independently.
+ */
+@NoArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "reservation_slot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reservation_slot_table_slot_start",
+                columnNames = {"table_id", "slot_start"}),
+        indexes = @Index(name = "idx_reservation_slot_reservation", columnList = "reservation_id"))
+public class ReservationSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id", nullable = false)
+    private Reservation reservation;
+
+    @Column(name = "table_id", nullable = false)
+    private Long tableId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Override
+    public String toString() {
+        return "ReservationSlot{" +
+                "id=" + id +
+                ", tableId=" + tableId +
+                ", slotStart=" + slotStart +
+                '}';
+    }
+}
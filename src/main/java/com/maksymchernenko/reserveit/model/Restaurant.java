@@ -13,7 +13,7 @@ import java.util.List;
  * Represents a restaurant in the system.
  * <p>
  * Has relationships with {@link WorkingTime} and {@link RestaurantTable},
- * stores name and address.
+ * stores name, address, {@link AllocationStrategy} and the number of days available for reservations.
  */
 @NoArgsConstructor
 @Setter
@@ -32,6 +32,12 @@ public class Restaurant {
     @Column(nullable = false)
     private String address;
 
+    @Column(name = "allocation_strategy")
+    private AllocationStrategy allocationStrategy = AllocationStrategy.BEST_FIT;
+
+    @Column(name = "reservation_days")
+    private Integer reservationDays;
+
     @OneToMany(
             mappedBy = "restaurant",
             cascade = CascadeType.ALL,
@@ -58,12 +64,28 @@ public class Restaurant {
         this.address = address;
     }
 
+    /**
+     * Represents a strategy of choosing a {@link RestaurantTable} for a new reservation.
+     */
+    public enum AllocationStrategy {
+        /**
+         * The free table with the smallest sufficient number of seats is chosen.
+         */
+        BEST_FIT,
+        /**
+         * The free table with the lowest number is chosen.
+         */
+        FIRST_FIT
+    }
+
     @Override
     public String toString() {
         return "Restaurant{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", address='" + address + '\'' +
+                ", allocationStrategy=" + allocationStrategy +
+                ", reservationDays=" + reservationDays +
                 '}';
     }
 }
@@ -0,0 +1,27 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object that represents one page of available reservation times.
+ * <p>
+ * A page holds the times of a single working day and the neighbouring days
+ * of the reservation period, used for loading other days on demand.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableDayDTO {
+
+    private LocalDate day;
+    private LocalDate previousDay;
+    private LocalDate nextDay;
+    private List<AvailableTimeDTO> availableTimes;
+}
@@ -0,0 +1,37 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Data Transfer Object that represents a reservation start time
+ * with the number of free {@link RestaurantTable} objects.
+ * <p>
+ * Used for choosing a reservation time. The start time is stored as minutes of the epoch
+ * of the local date and time and converted to {@link LocalDateTime} only when it is displayed.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableTimeDTO {
+
+    private long epochMinute;
+    private int freeTablesNumber;
+
+    /**
+     * Gets the start date and time.
+     *
+     * @return the start date and time
+     */
+    public LocalDateTime getDateTime() {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,74 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Data Transfer Object that represents a position in a list of {@link Reservation} objects
+ * ordered by date and time and id, optionally preceded by a sort key.
+ * <p>
+ * Used for keyset pagination, a page starts right after or before the position
+ * instead of skipping a number of rows. Is passed between requests as an opaque URL-safe string.
+ */
+@Getter
+@AllArgsConstructor
+public class ReservationCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private String key;
+    private LocalDateTime dayTime;
+    private long id;
+
+    /**
+     * Instantiates a new Reservation cursor at a reservation.
+     *
+     * @param reservation the reservation
+     * @param key         the sort key of the reservation, {@code null} if the list has no sort key
+     */
+    public ReservationCursor(ReservationDTO reservation,
+                             String key) {
+        this(key, reservation.getDayTime(), reservation.getId());
+    }
+
+    /**
+     * Encodes the cursor into a URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String value = dayTime + SEPARATOR + id + (key == null ? "" : SEPARATOR + key);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor from a string created by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor, may be {@code null}
+     * @return the cursor, empty if the string is {@code null} or malformed
+     */
+    public static Optional<ReservationCursor> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Optional.empty();
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 3);
+            if (parts.length < 2) return Optional.empty();
+
+            return Optional.of(new ReservationCursor(parts.length == 3 ? parts[2] : null,
+                    LocalDateTime.parse(parts[0]),
+                    Long.parseLong(parts[1])));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object that represents a read-only row of a {@link Reservation} list.
+ * <p>
+ * Holds only the values shown in the list, loaded by a single constructor expression query
+ * without loading the reservation, its table, restaurant and users as entities.
+ * The restaurant and table values are {@code null} for a reservation without a table.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationDTO {
+
+    private Long id;
+    private String restaurantName;
+    private String restaurantAddress;
+    private Integer tableNumber;
+    private String clientFirstName;
+    private LocalDateTime dayTime;
+    private Integer guestsNumber;
+    private Reservation.Status status;
+
+    /**
+     * Gets the effective status at the current time.
+     *
+     * @return the effective status
+     * @see Reservation#getEffectiveStatus(Reservation.Status, LocalDateTime, LocalDateTime)
+     */
+    public Reservation.Status getEffectiveStatus() {
+        return getEffectiveStatus(LocalDateTime.now());
+    }
+
+    /**
+     * Gets the effective status at a given time.
+     *
+     * @param now the time
+     * @return the effective status
+     * @see Reservation#getEffectiveStatus(Reservation.Status, LocalDateTime, LocalDateTime)
+     */
+    public Reservation.Status getEffectiveStatus(LocalDateTime now) {
+        return Reservation.getEffectiveStatus(status, dayTime, now);
+    }
+}
@@ -0,0 +1,25 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object that represents one page of a list of {@link ReservationDTO} objects.
+ * <p>
+ * Holds the encoded {@link ReservationCursor} objects of the neighbouring pages,
+ * used for loading other pages on demand.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationPageDTO {
+
+    private List<ReservationDTO> reservations;
+    private String previousCursor;
+    private String nextCursor;
+}
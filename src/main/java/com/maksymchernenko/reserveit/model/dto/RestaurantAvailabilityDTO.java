@@ -0,0 +1,29 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object that represents a {@link Restaurant} with free {@link RestaurantTable} objects
+ * around a requested time.
+ * <p>
+ * Used for searching a table across all restaurants.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestaurantAvailabilityDTO {
+
+    private Restaurant restaurant;
+    private AvailableTimeDTO closestTime;
+    private long distanceMinutes;
+    private List<AvailableTimeDTO> availableTimes;
+}
@@ -0,0 +1,29 @@
+package com.maksymchernenko.reserveit.model.dto;
+
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object that represents a short-lived hold of a {@link RestaurantTable}
+ * at a reservation time chosen by a client.
+ * <p>
+ * Used for confirming the reservation before the hold expires.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotHoldDTO {
+
+    private String id;
+    private long restaurantId;
+    private LocalDateTime dateTime;
+    private int numberOfGuests;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,40 @@
+package com.maksymchernenko.reserveit.repository;
+
+import com.maksymchernenko.reserveit.model.IdempotencyKey;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link IdempotencyKey} objects.
+ * <p>
+ * Provides methods to save, get and delete stored outcomes of requests.
+ */
+public interface IdempotencyKeyRepository {
+
+    /**
+     * Gets a stored outcome by client and key.
+     *
+     * @param clientId   the client id
+     * @param requestKey the key
+     * @return the optional of the stored outcome
+     */
+    Optional<IdempotencyKey> get(long clientId,
+                                 String requestKey);
+
+    /**
+     * Saves an outcome unless the key is already stored.
+     *
+     * @param idempotencyKey the outcome
+     * @return {@code true} if saved, {@code false} if the key is already stored for the client
+     */
+    boolean save(IdempotencyKey idempotencyKey);
+
+    /**
+     * Deletes outcomes stored before a given date and time.
+     *
+     * @param before the date and time
+     * @return the number of deleted outcomes
+     */
+    int deleteCreatedBefore(LocalDateTime before);
+}
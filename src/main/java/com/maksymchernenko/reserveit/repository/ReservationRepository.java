@@ -1,12 +1,16 @@
 package com.maksymchernenko.reserveit.repository;
 
 import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.ReservationCursor;
+import com.maksymchernenko.reserveit.model.dto.ReservationDTO;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing and managing {@link Reservation} entries in the database.
@@ -16,22 +20,89 @@ import java.util.Optional;
 public interface ReservationRepository {
 
     /**
-     * Gets all reservations.
+     * Gets a page of reservations visible to a {@link User} (manager) that start within a specified period
+     * sorted by an attribute.
+     * <p>
+     * A reservation is visible to the manager if it has no manager or is assigned to the manager.
+     * The reservations are ordered by the sort key, date and time and id, and the page starts
+     * right after the cursor, or right before it going backward.
      *
-     * @return the list of reservations
+     * @param manager  the manager
+     * @param from     the start of the period, inclusive
+     * @param to       the end of the period, exclusive, {@code null} for no end
+     * @param sort     the sort attribute, {@code status} or {@code restaurant} for the sort key
+     *                 of the reservation status name or the restaurant name, no sort key otherwise
+     * @param cursor   the position the page starts at, {@code null} for the first page
+     * @param backward whether the page precedes the cursor
+     * @param limit    the maximum number of reservations
+     * @return the list of reservation rows in the order of the query, reversed going backward
+     */
+    List<ReservationDTO> getByManagerAndPeriod(User manager,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               String sort,
+                                               ReservationCursor cursor,
+                                               boolean backward,
+                                               int limit);
+
+    /**
+     * Streams reservations visible to a {@link User} (manager) that start within a specified period
+     * sorted by date and time and id.
+     * <p>
+     * The rows are read by a forward-only cursor while the stream is consumed, the stream must be closed
+     * within the transaction it is opened in.
+     *
+     * @param manager   the manager
+     * @param from      the start of the period, inclusive, {@code null} for no start
+     * @param to        the end of the period, exclusive, {@code null} for no end
+     * @param fetchSize the number of rows fetched from the database at a time,
+     *                  {@code 0} or less for rows streamed one by one
+     * @return the stream of reservation rows
      */
-    List<Reservation> getAll();
+    Stream<ReservationDTO> streamByManagerAndPeriod(User manager,
+                                                    LocalDateTime from,
+                                                    LocalDateTime to,
+                                                    int fetchSize);
 
     /**
-     * Gets reservations by {@link User} (client) where the {@link Reservation.Status}
-     * matches any value from the provided list.
+     * Gets actual reservations by {@link User} (client).
+     * <p>
+     * The actual reservation is pending, or reserved and started not before a cutoff time.
+     * The reservations are ordered by date and time and id, and the page starts
+     * right after the cursor, or right before it going backward.
      *
      * @param client   the client associated with a reservation
-     * @param statuses the list of statuses
-     * @return the list of reservations
+     * @param cutoff   the start time before which reserved reservations are finished
+     * @param cursor   the position the page starts at, {@code null} for the first page
+     * @param backward whether the page precedes the cursor
+     * @param limit    the maximum number of reservations
+     * @return the list of reservation rows in the order of the query, reversed going backward
      */
-    List<Reservation> getByClientAndStatuses(User client,
-                                             List<Reservation.Status> statuses);
+    List<ReservationDTO> getActualByClient(User client,
+                                           LocalDateTime cutoff,
+                                           ReservationCursor cursor,
+                                           boolean backward,
+                                           int limit);
+
+    /**
+     * Gets historical reservations by {@link User} (client).
+     * <p>
+     * The historical reservation is cancelled, finished, or reserved and started before a cutoff time.
+     * The reservations are ordered by date and time and id, and the page starts
+     * right after the cursor, or right before it going backward.
+     *
+     * @param client   the client associated with a reservation
+     * @param cutoff   the start time before which reserved reservations are finished
+     * @param cursor   the position the page starts at, {@code null} for the first page
+     * @param backward whether the page precedes the cursor
+     * @param limit    the maximum number of reservations
+     * @return the list of reservation rows in the order of the query, reversed going backward
+     */
+    List<ReservationDTO> getHistoryByClient(User client,
+                                            LocalDateTime cutoff,
+                                            ReservationCursor cursor,
+                                            boolean backward,
+                                            int limit);
 
     /**
      * Gets a reservation by id.
@@ -49,6 +120,15 @@ public interface ReservationRepository {
      */
     List<Reservation> getByTableId(long tableId);
 
+    /**
+     * Gets active reservations starting from a specified date and time
+     * which do not occupy any {@link ReservationSlot} objects.
+     *
+     * @param from the start of the period, inclusive
+     * @return the list of reservations
+     */
+    List<Reservation> getActiveWithoutSlots(LocalDateTime from);
+
     /**
      * Creates a new reservation for a given {@link User} (client) and {@link RestaurantTable}.
      *
@@ -57,8 +137,9 @@ public interface ReservationRepository {
      * @param status          the initial reservation status
      * @param dateTime        the reservation date and time
      * @param numberOfGuests  the number of guests in the reservation
+     * @return the created reservation
      */
-    void reserve(RestaurantTable restaurantTable,
+    Reservation reserve(RestaurantTable restaurantTable,
                  User client,
                  Reservation.Status status,
                  LocalDateTime dateTime,
@@ -80,6 +161,50 @@ public interface ReservationRepository {
      */
     void cancelReservation(long id);
 
+    /**
+     * Submits pending reservations which have no other manager in a single statement
+     * by updating their {@link Reservation.Status} and manager.
+     *
+     * @param ids     the reservation ids
+     * @param manager the responsible manager
+     * @return the number of submitted reservations
+     */
+    int submitReservations(List<Long> ids,
+                           User manager);
+
+    /**
+     * Cancels active reservations which have no other manager in a single statement
+     * by updating their {@link Reservation.Status}.
+     * <p>
+     * Reserved reservations which started before a given time have ended and are not cancelled.
+     * The reservations are not deleted from the database.
+     *
+     * @param ids     the reservation ids
+     * @param manager the manager cancelling the reservations
+     * @param cutoff  the time before which reserved reservations started have ended
+     * @return the number of cancelled reservations
+     */
+    int cancelReservations(List<Long> ids,
+                           User manager,
+                           LocalDateTime cutoff);
+
+    /**
+     * Finishes reserved reservations which started before a given date and time in a single statement
+     * by updating their {@link Reservation.Status}.
+     *
+     * @param cutoff the date and time
+     * @return the number of finished reservations
+     */
+    int finishPassed(LocalDateTime cutoff);
+
+    /**
+     * Gets distinct ids of restaurants of reservations.
+     *
+     * @param ids the reservation ids
+     * @return the list of restaurant ids
+     */
+    List<Long> getRestaurantIds(List<Long> ids);
+
     /**
      * Removes the association of reservations with a {@link RestaurantTable}.
      *
@@ -0,0 +1,83 @@
+package com.maksymchernenko.reserveit.repository;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link ReservationSlot} objects.
+ * <p>
+ * Provides methods to occupy and release slots of {@link RestaurantTable} objects.
+ */
+public interface ReservationSlotRepository {
+
+    /**
+     * Occupies slots of a table for a reservation in a single statement.
+     * <p>
+     * Slots which are already occupied are skipped, so the transaction must be rolled back
+     * if not all slots are occupied.
+     *
+     * @param reservationId the {@link Reservation} id
+     * @param tableId       the restaurant table id
+     * @param slotStarts    the slot start times
+     * @return {@code true} if all slots were occupied, {@code false} if any slot is already taken
+     */
+    boolean occupy(long reservationId,
+                   long tableId,
+                   List<LocalDateTime> slotStarts);
+
+    /**
+     * Occupies slots of several reservations in a single statement.
+     * <p>
+     * Slots which are already occupied are skipped, so the transaction must be rolled back
+     * if not all slots are occupied.
+     *
+     * @param slots the slots with persisted reservations
+     * @return {@code true} if all slots were occupied, {@code false} if any slot is already taken
+     */
+    boolean occupyAll(List<ReservationSlot> slots);
+
+    /**
+     * Gets slots of restaurant tables starting within a period.
+     *
+     * @param tableIds the restaurant table ids
+     * @param from     the first slot start inclusively
+     * @param to       the last slot start inclusively
+     * @return the list of slots
+     */
+    List<ReservationSlot> getByTablesAndPeriod(List<Long> tableIds,
+                                               LocalDateTime from,
+                                               LocalDateTime to);
+
+    /**
+     * Releases all slots of a reservation.
+     *
+     * @param reservationId the {@link Reservation} id
+     */
+    void release(long reservationId);
+
+    /**
+     * Releases all slots of reservations which are cancelled.
+     *
+     * @param reservationIds the {@link Reservation} ids
+     */
+    void releaseCanceled(List<Long> reservationIds);
+
+    /**
+     * Releases all slots of reservations which started before a specified time.
+     *
+     * @param cutoff the time before which reservations started
+     * @return the number of released slots
+     */
+    int releasePassed(LocalDateTime cutoff);
+
+    /**
+     * Releases all slots of a restaurant table.
+     *
+     * @param tableId the restaurant table id
+     */
+    void releaseTable(long tableId);
+}
@@ -1,8 +1,10 @@
 package com.maksymchernenko.reserveit.repository;
 
+import com.maksymchernenko.reserveit.model.ReservationSlot;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.Restaurant;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,6 +49,23 @@ public interface RestaurantTableRepository {
     List<RestaurantTable> getBySeatsNumber(long restaurantId,
                                            int minSeatsNumber);
 
+    /**
+     * Gets restaurant tables by the minimum number of seats
+     * that have no occupied {@link ReservationSlot} within a specified period.
+     *
+     * @param restaurantId          the restaurant id
+     * @param minSeatsNumber        the minimum number of seats
+     * @param from                  the first slot start of the period, inclusive
+     * @param to                    the last slot start of the period, inclusive
+     * @param excludedReservationId the id of a reservation whose slots are ignored, {@code null} to check all slots
+     * @return the list of free tables
+     */
+    List<RestaurantTable> getFreeTables(long restaurantId,
+                                        int minSeatsNumber,
+                                        LocalDateTime from,
+                                        LocalDateTime to,
+                                        Long excludedReservationId);
+
     /**
      * Deletes a restaurant table by id.
      *
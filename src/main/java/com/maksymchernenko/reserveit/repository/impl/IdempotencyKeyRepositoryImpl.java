@@ -0,0 +1,81 @@
+package com.maksymchernenko.reserveit.repository.impl;
+
+import com.maksymchernenko.reserveit.model.IdempotencyKey;
+import com.maksymchernenko.reserveit.repository.IdempotencyKeyRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implements {@link IdempotencyKeyRepository} interface using JPA, custom JPQL and native MySQL queries.
+ */
+@Repository
+public class IdempotencyKeyRepositoryImpl implements IdempotencyKeyRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyRepositoryImpl.class);
+
+    private final EntityManager entityManager;
+
+    /**
+     * Instantiates a new {@link IdempotencyKeyRepository}.
+     *
+     * @param entityManager the entity manager
+     */
+    @Autowired
+    public IdempotencyKeyRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The query is covered by the unique (client_id, request_key) constraint.
+     */
+    @Override
+    public Optional<IdempotencyKey> get(long clientId,
+                                        String requestKey) {
+        logger.info("Fetching idempotency key with client id = {}, request key = {}", clientId, requestKey);
+
+        List<IdempotencyKey> list = entityManager.createQuery("FROM IdempotencyKey " +
+                        "WHERE clientId = :clientId AND requestKey = :requestKey", IdempotencyKey.class)
+                .setParameter("clientId", clientId)
+                .setParameter("requestKey", requestKey)
+                .getResultList();
+
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses {@code INSERT IGNORE}, so a key concurrently stored for the same client does not abort the transaction.
+     */
+    @Override
+    public boolean save(IdempotencyKey idempotencyKey) {
+        logger.info("Saving idempotency key = {}", idempotencyKey);
+
+        return entityManager.createNativeQuery("INSERT IGNORE INTO idempotency_key " +
+                        "(client_id, request_key, operation, result, created_at) VALUES (?, ?, ?, ?, ?)")
+                .setParameter(1, idempotencyKey.getClientId())
+                .setParameter(2, idempotencyKey.getRequestKey())
+                .setParameter(3, idempotencyKey.getOperation())
+                .setParameter(4, idempotencyKey.isResult())
+                .setParameter(5, idempotencyKey.getCreatedAt())
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public int deleteCreatedBefore(LocalDateTime before) {
+        logger.info("Deleting idempotency keys created before = {}", before);
+
+        return entityManager.createQuery("DELETE FROM IdempotencyKey WHERE createdAt < :before")
+                .setParameter("before", before)
+                .executeUpdate();
+    }
+}
@@ -3,16 +3,24 @@ package com.maksymchernenko.reserveit.repository.impl;
 import com.maksymchernenko.reserveit.model.Reservation;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.ReservationCursor;
+import com.maksymchernenko.reserveit.model.dto.ReservationDTO;
 import com.maksymchernenko.reserveit.repository.ReservationRepository;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Implements {@link ReservationRepository} interface using JPA and custom JPQL queries.
@@ -22,6 +30,10 @@ public class ReservationRepositoryImpl implements ReservationRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservationRepositoryImpl.class);
 
+    private static final String ROW_SELECT = "SELECT new " + ReservationDTO.class.getName() +
+            "(r.id, rs.name, rs.address, t.number, c.firstName, r.dayTime, r.guestsNumber, r.status) " +
+            "FROM Reservation r LEFT JOIN r.table t LEFT JOIN t.restaurant rs LEFT JOIN r.client c ";
+
     private final EntityManager entityManager;
 
     /**
@@ -34,25 +46,135 @@ public class ReservationRepositoryImpl implements ReservationRepository {
         this.entityManager = entityManager;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reservations without a table are sorted by an empty restaurant name.
+     */
     @Override
-    public List<Reservation> getAll() {
-        logger.info("Fetching all reservations");
+    public List<ReservationDTO> getByManagerAndPeriod(User manager,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to,
+                                                      String sort,
+                                                      ReservationCursor cursor,
+                                                      boolean backward,
+                                                      int limit) {
+        logger.info("Fetching reservations with manager = {}, from = {}, to = {}, sort = {}",
+                manager,
+                from,
+                to,
+                sort);
 
-        return entityManager.createQuery("FROM Reservation", Reservation.class)
-                .getResultList();
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("manager", manager);
+        parameters.put("from", from);
+        if (to != null) {
+            parameters.put("to", to);
+        }
+
+        String keyExpression = null;
+        Object key = null;
+        switch (sort) {
+            case "status" -> {
+                keyExpression = "r.status";
+                key = cursor == null ? null : Reservation.Status.valueOf(cursor.getKey());
+            }
+            case "restaurant" -> {
+                keyExpression = "COALESCE(rs.name, '')";
+                key = cursor == null ? null : cursor.getKey();
+            }
+            default -> {}
+        }
+
+        return getPage("WHERE (r.manager IS NULL OR r.manager = :manager) AND r.dayTime >= :from" +
+                        (to == null ? "" : " AND r.dayTime < :to"),
+                parameters,
+                keyExpression,
+                key,
+                cursor,
+                backward,
+                limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * MySQL Connector/J streams rows one by one only with a fetch size of {@link Integer#MIN_VALUE},
+     * a positive fetch size takes effect only with {@code useCursorFetch=true} in the connection URL,
+     * the whole result is buffered in memory otherwise.
+     */
+    @Override
+    public Stream<ReservationDTO> streamByManagerAndPeriod(User manager,
+                                                           LocalDateTime from,
+                                                           LocalDateTime to,
+                                                           int fetchSize) {
+        logger.info("Streaming reservations with manager = {}, from = {}, to = {}, fetch size = {}",
+                manager,
+                from,
+                to,
+                fetchSize);
+
+        TypedQuery<ReservationDTO> query = entityManager.createQuery(ROW_SELECT +
+                        "WHERE (r.manager IS NULL OR r.manager = :manager)" +
+                        (from == null ? "" : " AND r.dayTime >= :from") +
+                        (to == null ? "" : " AND r.dayTime < :to") +
+                        " ORDER BY r.dayTime, r.id", ReservationDTO.class)
+                .setParameter("manager", manager)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+
+        return query.getResultStream();
     }
 
     @Override
-    public List<Reservation> getByClientAndStatuses(User client,
-                                                    List<Reservation.Status> statuses) {
-        logger.info("Fetching reservations with client id = {} and statuses = {}",
+    public List<ReservationDTO> getActualByClient(User client,
+                                                  LocalDateTime cutoff,
+                                                  ReservationCursor cursor,
+                                                  boolean backward,
+                                                  int limit) {
+        logger.info("Fetching actual reservations with client id = {}, cutoff = {}",
                 client.getId(),
-                statuses);
+                cutoff);
 
-        return entityManager.createQuery("FROM Reservation WHERE client.id = :id AND status IN :statuses", Reservation.class)
-                .setParameter("id", client.getId())
-                .setParameter("statuses", statuses)
-                .getResultList();
+        return getPage("WHERE r.client.id = :id " +
+                        "AND (r.status = :pending OR (r.status = :reserved AND r.dayTime >= :cutoff))",
+                Map.of("id", client.getId(),
+                        "pending", Reservation.Status.PENDING,
+                        "reserved", Reservation.Status.RESERVED,
+                        "cutoff", cutoff),
+                null,
+                null,
+                cursor,
+                backward,
+                limit);
+    }
+
+    @Override
+    public List<ReservationDTO> getHistoryByClient(User client,
+                                                   LocalDateTime cutoff,
+                                                   ReservationCursor cursor,
+                                                   boolean backward,
+                                                   int limit) {
+        logger.info("Fetching history reservations with client id = {}, cutoff = {}",
+                client.getId(),
+                cutoff);
+
+        return getPage("WHERE r.client.id = :id " +
+                        "AND (r.status IN :statuses OR r.status = :reserved AND r.dayTime < :cutoff)",
+                Map.of("id", client.getId(),
+                        "statuses", List.of(Reservation.Status.CANCELED, Reservation.Status.FINISHED),
+                        "reserved", Reservation.Status.RESERVED,
+                        "cutoff", cutoff),
+                null,
+                null,
+                cursor,
+                backward,
+                limit);
     }
 
     @Override
@@ -75,22 +197,41 @@ public class ReservationRepositoryImpl implements ReservationRepository {
                 .getResultList();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The active reservation has a {@link Reservation.Status#PENDING} or {@link Reservation.Status#RESERVED}.
+     */
+    @Override
+    public List<Reservation> getActiveWithoutSlots(LocalDateTime from) {
+        logger.info("Fetching active reservations without slots from = {}", from);
+
+        return entityManager.createQuery("FROM Reservation r WHERE r.table IS NOT NULL " +
+                        "AND r.dayTime >= :from AND r.status IN :statuses " +
+                        "AND NOT EXISTS (SELECT 1 FROM ReservationSlot s WHERE s.reservation = r)", Reservation.class)
+                .setParameter("from", from)
+                .setParameter("statuses", List.of(Reservation.Status.PENDING, Reservation.Status.RESERVED))
+                .getResultList();
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * Sets responsible manager to {@code null}.
      */
     @Override
-    public void reserve(RestaurantTable restaurantTable,
-                        User client,
-                        Reservation.Status status,
-                        LocalDateTime dateTime,
-                        int numberOfGuests) {
+    public Reservation reserve(RestaurantTable restaurantTable,
+                               User client,
+                               Reservation.Status status,
+                               LocalDateTime dateTime,
+                               int numberOfGuests) {
         Reservation newReservation = new Reservation(restaurantTable, client, null, status, dateTime, numberOfGuests);
 
         logger.info("Creating reservation = {}", newReservation);
 
         entityManager.persist(newReservation);
+
+        return newReservation;
     }
 
     @Override
@@ -103,13 +244,13 @@ public class ReservationRepositoryImpl implements ReservationRepository {
     /**
      * {@inheritDoc}
      * <p>
-     * Sets {@link Reservation.Status} to {@link Reservation.Status#CANCELED}.
+     * Sets {@link Reservation.Status} to {@link Reservation.Status#CANCELED} and increments the version.
      */
     @Override
     public void cancelReservation(long id) {
         logger.info("Cancelling reservation with id = {}", id);
 
-        entityManager.createQuery("UPDATE Reservation r SET r.status = :status WHERE id = :id")
+        entityManager.createQuery("UPDATE Reservation r SET r.status = :status, r.version = r.version + 1 WHERE id = :id")
                 .setParameter("status", Reservation.Status.CANCELED)
                 .setParameter("id", id)
                 .executeUpdate();
@@ -118,14 +259,145 @@ public class ReservationRepositoryImpl implements ReservationRepository {
     /**
      * {@inheritDoc}
      * <p>
-     * Sets {@link RestaurantTable} field to {@code null} for reservations with a specified {@link RestaurantTable} id.
+     * Increments versions of the submitted reservations.
+     */
+    @Override
+    public int submitReservations(List<Long> ids,
+                                  User manager) {
+        logger.info("Submitting reservations with ids = {}, manager = {}", ids, manager);
+
+        if (ids.isEmpty()) return 0;
+
+        return entityManager.createQuery("UPDATE Reservation r SET r.status = :status, r.manager = :manager, " +
+                        "r.version = r.version + 1 WHERE r.id IN :ids AND r.status = :pending " +
+                        "AND (r.manager IS NULL OR r.manager = :manager)")
+                .setParameter("status", Reservation.Status.RESERVED)
+                .setParameter("manager", manager)
+                .setParameter("ids", ids)
+                .setParameter("pending", Reservation.Status.PENDING)
+                .executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Increments versions of the cancelled reservations.
+     */
+    @Override
+    public int cancelReservations(List<Long> ids,
+                                  User manager,
+                                  LocalDateTime cutoff) {
+        logger.info("Cancelling reservations with ids = {}, manager = {}, cutoff = {}", ids, manager, cutoff);
+
+        if (ids.isEmpty()) return 0;
+
+        return entityManager.createQuery("UPDATE Reservation r SET r.status = :status, r.version = r.version + 1 " +
+                        "WHERE r.id IN :ids AND (r.status = :pending OR (r.status = :reserved AND r.dayTime >= :cutoff)) " +
+                        "AND (r.manager IS NULL OR r.manager = :manager)")
+                .setParameter("status", Reservation.Status.CANCELED)
+                .setParameter("ids", ids)
+                .setParameter("pending", Reservation.Status.PENDING)
+                .setParameter("reserved", Reservation.Status.RESERVED)
+                .setParameter("cutoff", cutoff)
+                .setParameter("manager", manager)
+                .executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Increments versions of the finished reservations.
+     */
+    @Override
+    public int finishPassed(LocalDateTime cutoff) {
+        logger.info("Finishing reservations started before = {}", cutoff);
+
+        return entityManager.createQuery("UPDATE Reservation r SET r.status = :finished, r.version = r.version + 1 " +
+                        "WHERE r.status = :reserved AND r.dayTime < :cutoff")
+                .setParameter("finished", Reservation.Status.FINISHED)
+                .setParameter("reserved", Reservation.Status.RESERVED)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<Long> getRestaurantIds(List<Long> ids) {
+        logger.info("Fetching restaurant ids of reservations with ids = {}", ids);
+
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        return entityManager.createQuery("SELECT DISTINCT r.table.restaurant.id FROM Reservation r WHERE r.id IN :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sets {@link RestaurantTable} field to {@code null} for reservations with a specified {@link RestaurantTable} id
+     * and increments their versions.
      */
     @Override
     public void deleteTables(long tableId) {
         logger.info("Removing table links from reservations with tableId = {}", tableId);
 
-        entityManager.createQuery("UPDATE Reservation SET table = null WHERE table.id = :id")
+        entityManager.createQuery("UPDATE Reservation SET table = null, version = version + 1 WHERE table.id = :id")
                 .setParameter("id", tableId)
                 .executeUpdate();
     }
+
+    /**
+     * Gets a page of reservation rows by keyset pagination.
+     * <p>
+     * The page seeks past the cursor by comparing the sort key, date and time and id with the values
+     * of the cursor, so it costs the same however deep it is.
+     * The rows are selected by one {@link #ROW_SELECT} query, without loading entities.
+     *
+     * @param where         the {@code WHERE} clause of reservations aliased as {@code r}
+     *                      and their restaurants aliased as {@code rs}
+     * @param parameters    the query parameters
+     * @param keyExpression the sort key expression, {@code null} for no sort key
+     * @param key           the sort key of the cursor
+     * @param cursor        the position the page starts at, {@code null} for the first page
+     * @param backward      whether the page precedes the cursor
+     * @param limit         the maximum number of reservations
+     * @return the list of reservation rows in the order of the query
+     */
+    private List<ReservationDTO> getPage(String where,
+                                         Map<String, Object> parameters,
+                                         String keyExpression,
+                                         Object key,
+                                         ReservationCursor cursor,
+                                         boolean backward,
+                                         int limit) {
+        String comparison = backward ? " < " : " > ";
+        String direction = backward ? " DESC" : "";
+
+        StringBuilder jpql = new StringBuilder(ROW_SELECT).append(where);
+        if (cursor != null) {
+            String seek = "(r.dayTime" + comparison + ":cursorDayTime " +
+                    "OR r.dayTime = :cursorDayTime AND r.id" + comparison + ":cursorId)";
+            jpql.append(" AND ").append(keyExpression == null
+                    ? seek
+                    : "(" + keyExpression + comparison + ":cursorKey OR " + keyExpression + " = :cursorKey AND " + seek + ")");
+        }
+        jpql.append(" ORDER BY ");
+        if (keyExpression != null) {
+            jpql.append(keyExpression).append(direction).append(", ");
+        }
+        jpql.append("r.dayTime").append(direction).append(", r.id").append(direction);
+
+        TypedQuery<ReservationDTO> query = entityManager.createQuery(jpql.toString(), ReservationDTO.class)
+                .setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        if (cursor != null) {
+            query.setParameter("cursorDayTime", cursor.getDayTime());
+            query.setParameter("cursorId", cursor.getId());
+            if (keyExpression != null) {
+                query.setParameter("cursorKey", key);
+            }
+        }
+
+        return query.getResultList();
+    }
 }
@@ -0,0 +1,168 @@
+package com.maksymchernenko.reserveit.repository.impl;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
+import com.maksymchernenko.reserveit.repository.ReservationSlotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements {@link ReservationSlotRepository} interface using JPA, custom JPQL and native MySQL queries.
+ */
+@Repository
+public class ReservationSlotRepositoryImpl implements ReservationSlotRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSlotRepositoryImpl.class);
+
+    private final EntityManager entityManager;
+
+    /**
+     * Instantiates a new {@link ReservationSlotRepository}.
+     *
+     * @param entityManager the entity manager
+     */
+    @Autowired
+    public ReservationSlotRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses a multi-row {@code INSERT IGNORE}, so a conflict on the unique constraint
+     * does not abort the transaction and is detected by the number of inserted rows.
+     */
+    @Override
+    public boolean occupy(long reservationId,
+                          long tableId,
+                          List<LocalDateTime> slotStarts) {
+        logger.info("Occupying slots with reservation id = {}, table id = {}, slot starts = {}",
+                reservationId,
+                tableId,
+                slotStarts);
+
+        if (slotStarts.isEmpty()) return true;
+
+        Query query = createInsertIgnore(slotStarts.size());
+        int position = 1;
+        for (LocalDateTime slotStart : slotStarts) {
+            query.setParameter(position++, reservationId);
+            query.setParameter(position++, tableId);
+            query.setParameter(position++, slotStart);
+        }
+
+        return query.executeUpdate() == slotStarts.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses a multi-row {@code INSERT IGNORE}, so a conflict on the unique constraint
+     * does not abort the transaction and is detected by the number of inserted rows.
+     */
+    @Override
+    public boolean occupyAll(List<ReservationSlot> slots) {
+        logger.info("Occupying {} slots", slots.size());
+
+        if (slots.isEmpty()) return true;
+
+        Query query = createInsertIgnore(slots.size());
+        int position = 1;
+        for (ReservationSlot slot : slots) {
+            query.setParameter(position++, slot.getReservation().getId());
+            query.setParameter(position++, slot.getTableId());
+            query.setParameter(position++, slot.getSlotStart());
+        }
+
+        return query.executeUpdate() == slots.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The query is covered by the unique (table_id, slot_start) constraint.
+     */
+    @Override
+    public List<ReservationSlot> getByTablesAndPeriod(List<Long> tableIds,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to) {
+        logger.info("Fetching slots with table ids = {}, from = {}, to = {}",
+                tableIds,
+                from,
+                to);
+
+        if (tableIds.isEmpty()) return new ArrayList<>();
+
+        return entityManager.createQuery("FROM ReservationSlot WHERE tableId IN :tableIds " +
+                        "AND slotStart >= :from AND slotStart <= :to", ReservationSlot.class)
+                .setParameter("tableIds", tableIds)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    @Override
+    public void release(long reservationId) {
+        logger.info("Releasing slots with reservation id = {}", reservationId);
+
+        entityManager.createQuery("DELETE FROM ReservationSlot WHERE reservation.id = :id")
+                .setParameter("id", reservationId)
+                .executeUpdate();
+    }
+
+    @Override
+    public void releaseCanceled(List<Long> reservationIds) {
+        logger.info("Releasing slots of cancelled reservations with ids = {}", reservationIds);
+
+        if (reservationIds.isEmpty()) return;
+
+        entityManager.createQuery("DELETE FROM ReservationSlot s WHERE s.reservation.id IN " +
+                        "(SELECT r.id FROM Reservation r WHERE r.id IN :ids AND r.status = :status)")
+                .setParameter("ids", reservationIds)
+                .setParameter("status", Reservation.Status.CANCELED)
+                .executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Releases the slots of a reservation as a unit, so a reservation which is still in progress
+     * keeps all its slots.
+     */
+    @Override
+    public int releasePassed(LocalDateTime cutoff) {
+        logger.info("Releasing slots of reservations started before = {}", cutoff);
+
+        return entityManager.createQuery("DELETE FROM ReservationSlot s WHERE s.reservation.id IN " +
+                        "(SELECT r.id FROM Reservation r WHERE r.dayTime < :cutoff)")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+
+    @Override
+    public void releaseTable(long tableId) {
+        logger.info("Releasing slots with table id = {}", tableId);
+
+        entityManager.createQuery("DELETE FROM ReservationSlot WHERE tableId = :id")
+                .setParameter("id", tableId)
+                .executeUpdate();
+    }
+
+    private Query createInsertIgnore(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT IGNORE INTO reservation_slot (reservation_id, table_id, slot_start) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(?, ?, ?)");
+        }
+
+        return entityManager.createNativeQuery(sql.toString());
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -66,6 +67,11 @@ public class RestaurantTableRepositoryImpl implements RestaurantTableRepository
                 .getResultList();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The result list is sorted by the number of seats and table number.
+     */
     @Override
     public List<RestaurantTable> getBySeatsNumber(long restaurantId,
                                                   int minSeatsNumber) {
@@ -74,9 +80,43 @@ public class RestaurantTableRepositoryImpl implements RestaurantTableRepository
                 minSeatsNumber);
 
         return entityManager.createQuery("FROM RestaurantTable WHERE restaurant.id = :restaurantId " +
-                        "AND seatsNumber >= :minSeatsNumber", RestaurantTable.class)
+                        "AND seatsNumber >= :minSeatsNumber ORDER BY seatsNumber, number", RestaurantTable.class)
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("minSeatsNumber", minSeatsNumber)
+                .getResultList();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses an anti-join on the (table_id, slot_start) unique index of reservation slots.
+     * The result list is sorted by the number of seats and table number.
+     */
+    @Override
+    public List<RestaurantTable> getFreeTables(long restaurantId,
+                                               int minSeatsNumber,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               Long excludedReservationId) {
+        logger.info("Fetching free restaurant tables with restaurant id = {}, minimum seats number = {}, " +
+                        "from = {}, to = {}, excluded reservation id = {}",
+                restaurantId,
+                minSeatsNumber,
+                from,
+                to,
+                excludedReservationId);
+
+        return entityManager.createQuery("FROM RestaurantTable t WHERE t.restaurant.id = :restaurantId " +
+                        "AND t.seatsNumber >= :minSeatsNumber " +
+                        "AND NOT EXISTS (SELECT 1 FROM ReservationSlot s WHERE s.tableId = t.id " +
+                        "AND s.slotStart >= :from AND s.slotStart <= :to " +
+                        "AND (:excludedId IS NULL OR s.reservation.id <> :excludedId)) " +
+                        "ORDER BY t.seatsNumber, t.number", RestaurantTable.class)
                 .setParameter("restaurantId", restaurantId)
                 .setParameter("minSeatsNumber", minSeatsNumber)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("excludedId", excludedReservationId)
                 .getResultList();
     }
 
@@ -0,0 +1,32 @@
+package com.maksymchernenko.reserveit.service;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import com.maksymchernenko.reserveit.model.dto.RestaurantAvailabilityDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for searching free {@link RestaurantTable} objects across all {@link Restaurant} objects.
+ */
+public interface AvailabilitySearchService {
+
+    /**
+     * Defines the maximum number of minutes between a requested time and a found time.
+     */
+    int MAX_SEARCH_WINDOW_MINUTES = 180;
+
+    /**
+     * Searches restaurants with a free table for a number of guests around a requested time.
+     *
+     * @param dateTime       the requested date and time
+     * @param windowMinutes  the maximum number of minutes between the requested time and a found time
+     * @param numberOfGuests the number of guests
+     * @return the list of restaurants with available times sorted by the distance of the closest time
+     * to the requested one
+     */
+    List<RestaurantAvailabilityDTO> search(LocalDateTime dateTime,
+                                           int windowMinutes,
+                                           int numberOfGuests);
+}
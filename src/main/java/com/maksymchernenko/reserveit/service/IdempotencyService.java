@@ -0,0 +1,40 @@
+package com.maksymchernenko.reserveit.service;
+
+import com.maksymchernenko.reserveit.model.IdempotencyKey;
+import com.maksymchernenko.reserveit.model.User;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Service interface for deduplicating repeated submissions of a form by {@link IdempotencyKey} objects.
+ * <p>
+ * A key is rendered into a form and submitted with it, so double-clicks and browser retries
+ * of the same submission are processed once.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Generates a new idempotency key to render into a form.
+     *
+     * @return the key
+     */
+    String newKey();
+
+    /**
+     * Executes an operation once per client and key.
+     * <p>
+     * A replay of a processed key returns the original outcome without executing the operation,
+     * a replay of a key which is being processed waits for the outcome.
+     * The same key submitted by another client is processed separately.
+     *
+     * @param client    the client submitting the key
+     * @param key       the idempotency key, the operation is always executed if {@code null} or malformed
+     * @param operation the operation name, a key can not be replayed for another operation
+     * @param action    the operation
+     * @return the outcome of the operation, {@code false} if the key belongs to another operation
+     */
+    boolean execute(User client,
+                    String key,
+                    String operation,
+                    BooleanSupplier action);
+}
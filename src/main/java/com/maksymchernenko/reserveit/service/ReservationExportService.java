@@ -0,0 +1,30 @@
+package com.maksymchernenko.reserveit.service;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Service interface for exporting {@link Reservation} objects.
+ * <p>
+ * Exports are written as they are read, so their size is not limited by memory.
+ */
+public interface ReservationExportService {
+
+    /**
+     * Writes reservations of a manager within a period of days as CSV sorted by date and time.
+     *
+     * @param manager      the manager
+     * @param from         the first day, {@code null} for no start
+     * @param to           the last day, {@code null} for no end
+     * @param outputStream the stream to write to, is not closed
+     * @throws IOException if writing fails
+     */
+    void exportCsv(User manager,
+                   LocalDate from,
+                   LocalDate to,
+                   OutputStream outputStream) throws IOException;
+}
@@ -4,10 +4,15 @@ import com.maksymchernenko.reserveit.model.Reservation;
 import com.maksymchernenko.reserveit.model.Restaurant;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.AvailableDayDTO;
+import com.maksymchernenko.reserveit.model.dto.AvailableTimeDTO;
+import com.maksymchernenko.reserveit.model.dto.ReservationCursor;
+import com.maksymchernenko.reserveit.model.dto.ReservationPageDTO;
+import com.maksymchernenko.reserveit.model.dto.SlotHoldDTO;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Service interface for managing {@link Reservation} objects.
@@ -17,9 +22,13 @@ import java.util.Map;
 public interface ReservationService {
 
     /**
-     * Defines the number of days available for reservations from today.
+     * Defines the default number of days available for reservations from today.
      */
     int AVAILABLE_DAYS_FOR_RESERVATION = 3;
+    /**
+     * Defines the maximum number of days available for reservations from today.
+     */
+    int MAX_AVAILABLE_DAYS_FOR_RESERVATION = 90;
     /**
      * Defines the reservation duration of hours.
      */
@@ -30,41 +39,87 @@ public interface ReservationService {
     int MINUTES_INTERVAL = 15;
 
     /**
-     * Gets actual reservations for a given {@link User} (client).
+     * Gets a page of actual reservations for a given {@link User} (client).
      *
      * @param client the client
-     * @return the list of reservations
+     * @param after  the encoded {@link ReservationCursor} the page follows, may be {@code null}
+     * @param before the encoded {@link ReservationCursor} the page precedes, may be {@code null}
+     * @return the page of reservations, the first page if both cursors are absent
      */
-    List<Reservation> getActualByClient(User client);
+    ReservationPageDTO getActualByClient(User client,
+                                         String after,
+                                         String before);
 
     /**
-     * Gets a reservation history for a given {@link User} (client).
+     * Gets a page of a reservation history for a given {@link User} (client).
      *
      * @param client the client
-     * @return the list of reservations
+     * @param after  the encoded {@link ReservationCursor} the page follows, may be {@code null}
+     * @param before the encoded {@link ReservationCursor} the page precedes, may be {@code null}
+     * @return the page of reservations, the first page if both cursors are absent
      */
-    List<Reservation> getHistoryByClient(User client);
+    ReservationPageDTO getHistoryByClient(User client,
+                                          String after,
+                                          String before);
 
     /**
-     * Gets all reservations sorted by a specified filter.
+     * Gets a page of reservations of a manager within a period of days sorted by a specified filter.
      *
      * @param filter  the filter
      * @param manager the manager
-     * @return the list of reservations
+     * @param from    the first day, {@code null} for upcoming and ongoing reservations
+     * @param to      the last day, {@code null} for no end
+     * @param after   the encoded {@link ReservationCursor} the page follows, may be {@code null}
+     * @param before  the encoded {@link ReservationCursor} the page precedes, may be {@code null}
+     * @return the page of reservations, the first page if both cursors are absent
      */
-    List<Reservation> getAll(String filter,
-                             User manager);
+    ReservationPageDTO getAll(String filter,
+                              User manager,
+                              LocalDate from,
+                              LocalDate to,
+                              String after,
+                              String before);
 
     /**
-     * Gets available {@link RestaurantTable} objects with times
+     * Gets distinct available reservation times of one working day sorted in ascending order
      * by a specified {@link Restaurant} id and a number of guests.
      *
      * @param restaurantId   the restaurant id
      * @param numberOfGuests the number of guests
-     * @return the available tables map
+     * @param day            the working day, {@code null} for the first day of the reservation period
+     * @return the day with the available times and the number of free {@link RestaurantTable} objects
+     */
+    AvailableDayDTO getAvailableDay(long restaurantId,
+                                    int numberOfGuests,
+                                    LocalDate day);
+
+    /**
+     * Gets distinct available reservation times within a period sorted in ascending order
+     * by a specified {@link Restaurant} and a number of guests.
+     *
+     * @param restaurant     the restaurant
+     * @param numberOfGuests the number of guests
+     * @param from           the period start, inclusive
+     * @param to             the period end, inclusive
+     * @return the list of available times with the number of free {@link RestaurantTable} objects
      */
-    Map<RestaurantTable, List<LocalDateTime>> getAvailableTablesMap(long restaurantId,
-                                                                    int numberOfGuests);
+    List<AvailableTimeDTO> getAvailableTimes(Restaurant restaurant,
+                                             int numberOfGuests,
+                                             LocalDateTime from,
+                                             LocalDateTime to);
+
+    /**
+     * Gets distinct available times of one working day sorted in ascending order
+     * to move an existing reservation to with a new number of guests.
+     *
+     * @param reservation    the reservation to move
+     * @param numberOfGuests the new number of guests
+     * @param day            the working day, {@code null} for the day of the reservation
+     * @return the day with the available times and the number of free {@link RestaurantTable} objects
+     */
+    AvailableDayDTO getAvailableDay(Reservation reservation,
+                                    int numberOfGuests,
+                                    LocalDate day);
 
     /**
      * Gets reservation by id.
@@ -74,6 +129,23 @@ public interface ReservationService {
      */
     Reservation getReservation(long id);
 
+    /**
+     * Holds a free {@link RestaurantTable} for a short time for a specified {@link Restaurant} id,
+     * {@link User} (client), number of guests and time, so the client can confirm the reservation.
+     * <p>
+     * The held table is not available to other clients until the hold is used or expires.
+     *
+     * @param restaurantId   the restaurant id
+     * @param dateTime       the reservation date and time
+     * @param numberOfGuests the number of guests
+     * @param client         the client making the reservation
+     * @return the hold, {@code null} if no table is available
+     */
+    SlotHoldDTO holdTable(long restaurantId,
+                          LocalDateTime dateTime,
+                          int numberOfGuests,
+                          User client);
+
     /**
      * Reserves a {@link RestaurantTable} for a specified {@link Restaurant} id,
      * {@link User} (client), number of guests and time.
@@ -82,20 +154,26 @@ public interface ReservationService {
      * @param dateTime       the reservation date and time
      * @param numberOfGuests the number of guests
      * @param client         the client making the reservation
+     * @param holdId         the id of a hold placed by {@link #holdTable}, may be {@code null}
      * @return {@code true} if reserved successfully, {@code false} otherwise
      */
     boolean reserve(long restaurantId,
                     LocalDateTime dateTime,
                     int numberOfGuests,
-                    User client);
+                    User client,
+                    String holdId);
 
     /**
-     * Updates a reservation.
+     * Moves a reservation to a new time and number of guests.
      *
-     * @param reservation the updated reservation
+     * @param id             the reservation id
+     * @param dateTime       the new reservation date and time
+     * @param numberOfGuests the new number of guests
      * @return {@code true} if updated successfully, {@code false} otherwise
      */
-    boolean updateReservation(Reservation reservation);
+    boolean updateReservation(long id,
+                              LocalDateTime dateTime,
+                              int numberOfGuests);
 
     /**
      * Cancels a reservation.
@@ -112,4 +190,24 @@ public interface ReservationService {
      */
     void submitReservation(long id,
                            User manager);
+
+    /**
+     * Submits several pending reservations at once.
+     *
+     * @param ids     the reservation ids
+     * @param manager the responsible manager
+     * @return the number of submitted reservations
+     */
+    int submitReservations(List<Long> ids,
+                           User manager);
+
+    /**
+     * Cancels several reservations at once.
+     *
+     * @param ids     the reservation ids
+     * @param manager the manager cancelling the reservations
+     * @return the number of cancelled reservations
+     */
+    int cancelReservations(List<Long> ids,
+                           User manager);
 }
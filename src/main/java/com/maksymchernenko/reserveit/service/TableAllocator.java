@@ -0,0 +1,33 @@
+package com.maksymchernenko.reserveit.service;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Strategy interface for choosing a {@link RestaurantTable} for a reservation.
+ * <p>
+ * Every implementation handles one {@link Restaurant.AllocationStrategy},
+ * which is selected per {@link Restaurant}.
+ */
+public interface TableAllocator {
+
+    /**
+     * Gets the allocation strategy handled by the allocator.
+     *
+     * @return the allocation strategy
+     */
+    Restaurant.AllocationStrategy getStrategy();
+
+    /**
+     * Chooses one of the free tables for a number of guests.
+     *
+     * @param freeTables     the free tables sorted by the number of seats and table number
+     * @param numberOfGuests the number of guests
+     * @return the optional of a chosen table
+     */
+    Optional<RestaurantTable> allocate(List<RestaurantTable> freeTables,
+                                       int numberOfGuests);
+}
@@ -0,0 +1,220 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of {@link DayAvailability} objects keyed by {@link Restaurant} id,
+ * number of guests and day.
+ * <p>
+ * Least recently used entries are evicted when the cache is full and entries expire
+ * after a time to live. Entries of a restaurant are invalidated whenever its reservations,
+ * tables or working times change. Entries are also indexed by restaurant, so an invalidation
+ * only visits the entries of its restaurant.
+ * <p>
+ * Every restaurant has a generation which is increased on invalidation. An entry is only stored
+ * if the generation did not change while it was computed, so availability computed from data
+ * that changed in the meantime is never cached.
+ */
+@Component
+public class AvailabilityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCache.class);
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<Long, Map<Key, Entry>> restaurantEntries = new HashMap<>();
+    private final Map<Long, Long> generations = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Instantiates a new Availability cache.
+     *
+     * @param maxSize           the maximum number of entries
+     * @param timeToLiveSeconds the entry time to live in seconds
+     */
+    @Autowired
+    public AvailabilityCache(@Value("${reserveit.availability.cache.max-size:10000}") int maxSize,
+                             @Value("${reserveit.availability.cache.time-to-live-seconds:300}") long timeToLiveSeconds) {
+        this(maxSize, timeToLiveSeconds, System::nanoTime);
+    }
+
+    /**
+     * Instantiates a new Availability cache with a given clock.
+     *
+     * @param maxSize           the maximum number of entries
+     * @param timeToLiveSeconds the entry time to live in seconds
+     * @param nanoClock         the clock of nanoseconds used for the time to live
+     */
+    AvailabilityCache(int maxSize,
+                      long timeToLiveSeconds,
+                      LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > AvailabilityCache.this.maxSize) {
+                    removeFromRestaurant(eldest.getKey());
+                    evictions++;
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the current generation of a restaurant.
+     * <p>
+     * Must be read before loading the data an entry is computed from.
+     *
+     * @param restaurantId the restaurant id
+     * @return the generation
+     */
+    public synchronized long getGeneration(long restaurantId) {
+        return generations.getOrDefault(restaurantId, 0L);
+    }
+
+    /**
+     * Gets a cached day availability.
+     *
+     * @param restaurantId   the restaurant id
+     * @param numberOfGuests the number of guests
+     * @param day            the working day
+     * @return the day availability, {@code null} if it is not cached or expired
+     */
+    public synchronized DayAvailability get(long restaurantId,
+                                            int numberOfGuests,
+                                            LocalDate day) {
+        Key key = new Key(restaurantId, numberOfGuests, day);
+        Entry entry = entries.get(key);
+
+        if (entry != null && nanoClock.getAsLong() - entry.createdAt() > timeToLiveNanos) {
+            entries.remove(key);
+            removeFromRestaurant(key);
+            evictions++;
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+
+            return null;
+        }
+
+        hits++;
+
+        return entry.availability();
+    }
+
+    /**
+     * Stores a day availability if the restaurant generation did not change.
+     *
+     * @param generation   the restaurant generation read before the availability was computed
+     * @param availability the day availability
+     */
+    public synchronized void put(long generation,
+                                 DayAvailability availability) {
+        if (generation != getGeneration(availability.getRestaurantId())) return;
+
+        Key key = new Key(availability.getRestaurantId(), availability.getNumberOfGuests(), availability.getDay());
+        Entry entry = new Entry(availability, nanoClock.getAsLong());
+        restaurantEntries.computeIfAbsent(key.restaurantId(), id -> new HashMap<>()).put(key, entry);
+        entries.put(key, entry);
+    }
+
+    /**
+     * Invalidates all entries of a restaurant.
+     * <p>
+     * When called inside a transaction, the entries are invalidated after commit. Entries computed
+     * concurrently from the data before commit are not stored, as the invalidation increases the generation.
+     *
+     * @param restaurantId the restaurant id
+     */
+    public void invalidate(long restaurantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate(restaurantId);
+                }
+            });
+
+            return;
+        }
+
+        doInvalidate(restaurantId);
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return the number of entries
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void doInvalidate(long restaurantId) {
+        generations.merge(restaurantId, 1L, Long::sum);
+        Map<Key, Entry> removed = restaurantEntries.remove(restaurantId);
+        if (removed != null) {
+            for (Key key : removed.keySet()) {
+                entries.remove(key);
+            }
+        }
+        invalidations++;
+
+        logger.debug("Invalidated availability cache for restaurant id = {}. " +
+                        "Size = {}, hits = {}, misses = {}, evictions = {}, invalidations = {}",
+                restaurantId,
+                entries.size(),
+                hits,
+                misses,
+                evictions,
+                invalidations);
+    }
+
+    private void removeFromRestaurant(Key key) {
+        Map<Key, Entry> keys = restaurantEntries.get(key.restaurantId());
+        if (keys == null) return;
+
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            restaurantEntries.remove(key.restaurantId());
+        }
+    }
+
+    private record Key(long restaurantId,
+                       int numberOfGuests,
+                       LocalDate day) {
+    }
+
+    private record Entry(DayAvailability availability,
+                         long createdAt) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.dto.AvailableTimeDTO;
+import com.maksymchernenko.reserveit.model.dto.RestaurantAvailabilityDTO;
+import com.maksymchernenko.reserveit.service.AvailabilitySearchService;
+import com.maksymchernenko.reserveit.service.ReservationService;
+import com.maksymchernenko.reserveit.service.RestaurantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Implements {@link AvailabilitySearchService} interface.
+ * <p>
+ * Checks every restaurant in parallel on a bounded executor and ranks the restaurants
+ * by the closeness of their available times to the requested one.
+ * <p>
+ * Every check runs in a read-only transaction with the search timeout rounded up to seconds,
+ * so a query blocked in the database driver, which does not react to interruption, is cancelled too.
+ */
+@Service
+public class AvailabilitySearchServiceImpl implements AvailabilitySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilitySearchServiceImpl.class);
+
+    private final RestaurantService restaurantService;
+    private final ReservationService reservationService;
+    private final Executor executor;
+    private final PlatformTransactionManager transactionManager;
+    private final long timeoutMillis;
+
+    /**
+     * Instantiates a new {@link AvailabilitySearchService}.
+     *
+     * @param restaurantService  the {@link RestaurantService}
+     * @param reservationService the {@link ReservationService}
+     * @param executor           the executor running availability checks of single restaurants
+     * @param transactionManager the transaction manager used for the checks
+     * @param timeoutMillis      the maximum search duration in milliseconds
+     */
+    @Autowired
+    public AvailabilitySearchServiceImpl(RestaurantService restaurantService,
+                                         ReservationService reservationService,
+                                         @Qualifier("availabilitySearchExecutor") Executor executor,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${reserveit.availability.search.timeout-millis:2000}") long timeoutMillis) {
+        this.restaurantService = restaurantService;
+        this.reservationService = reservationService;
+        this.executor = executor;
+        this.transactionManager = transactionManager;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Restaurants which are not checked within the search timeout or whose checks are rejected
+     * by the executor are skipped, running checks of the skipped restaurants are interrupted. Restaurants at the same distance are sorted by name.
+     */
+    @Override
+    public List<RestaurantAvailabilityDTO> search(LocalDateTime dateTime,
+                                                  int windowMinutes,
+                                                  int numberOfGuests) {
+        logger.info("Searching restaurants with dateTime = {}, window = {} minutes, number of guests = {}",
+                dateTime,
+                windowMinutes,
+                numberOfGuests);
+
+        long startedAt = System.nanoTime();
+        int window = Math.max(0, Math.min(windowMinutes, MAX_SEARCH_WINDOW_MINUTES));
+        LocalDateTime from = dateTime.minusMinutes(window);
+        LocalDateTime to = dateTime.plusMinutes(window);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+
+        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
+        List<FutureTask<RestaurantAvailabilityDTO>> futures = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) {
+            FutureTask<RestaurantAvailabilityDTO> future = new FutureTask<>(() -> transactionTemplate.execute(
+                    transactionStatus -> checkRestaurant(restaurant, dateTime, from, to, numberOfGuests)));
+            try {
+                executor.execute(future);
+                futures.add(future);
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+
+                logger.warn("Search skipped for restaurant id = {}", restaurant.getId());
+            }
+        }
+
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<RestaurantAvailabilityDTO> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            FutureTask<RestaurantAvailabilityDTO> future = futures.get(i);
+            if (future == null) continue;
+
+            try {
+                RestaurantAvailabilityDTO result = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+
+                logger.warn("Search timed out for restaurant id = {}", restaurants.get(i).getId());
+            } catch (ExecutionException e) {
+                logger.error("Search failed for restaurant id = {}", restaurants.get(i).getId(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                logger.warn("Search interrupted");
+
+                break;
+            }
+        }
+        for (FutureTask<RestaurantAvailabilityDTO> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        results.sort(Comparator.comparingLong(RestaurantAvailabilityDTO::getDistanceMinutes)
+                .thenComparing(result -> result.getRestaurant().getName()));
+
+        logger.info("Found {} of {} restaurants in {} ms",
+                results.size(),
+                restaurants.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        return results;
+    }
+
+    private RestaurantAvailabilityDTO checkRestaurant(Restaurant restaurant,
+                                                      LocalDateTime dateTime,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to,
+                                                      int numberOfGuests) {
+        if (Thread.currentThread().isInterrupted()) return null;
+
+        List<AvailableTimeDTO> availableTimes = reservationService.getAvailableTimes(restaurant, numberOfGuests, from, to);
+        if (availableTimes.isEmpty()) return null;
+
+        long requestedMinute = SlotOccupancyIndex.toEpochMinute(dateTime);
+        AvailableTimeDTO closestTime = null;
+        long distanceMinutes = Long.MAX_VALUE;
+        for (AvailableTimeDTO availableTime : availableTimes) {
+            long distance = Math.abs(availableTime.getEpochMinute() - requestedMinute);
+            if (distance < distanceMinutes) {
+                closestTime = availableTime;
+                distanceMinutes = distance;
+            }
+        }
+
+        return new RestaurantAvailabilityDTO(restaurant, closestTime, distanceMinutes, availableTimes);
+    }
+}
@@ -0,0 +1,42 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import com.maksymchernenko.reserveit.service.TableAllocator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implements {@link TableAllocator} interface for {@link Restaurant.AllocationStrategy#BEST_FIT}.
+ * <p>
+ * Chooses the free table with the smallest sufficient number of seats,
+ * so larger tables stay free for larger parties.
+ */
+@Component
+public class BestFitTableAllocator implements TableAllocator {
+
+    @Override
+    public Restaurant.AllocationStrategy getStrategy() {
+        return Restaurant.AllocationStrategy.BEST_FIT;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Takes the first table with enough seats, which is the lowest numbered table
+     * of the smallest sufficient size since the free tables are sorted.
+     */
+    @Override
+    public Optional<RestaurantTable> allocate(List<RestaurantTable> freeTables,
+                                              int numberOfGuests) {
+        for (RestaurantTable table : freeTables) {
+            if (table.getSeatsNumber() >= numberOfGuests) {
+                return Optional.of(table);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,219 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per {@link Restaurant} queues of booking requests for group commit.
+ * <p>
+ * Requests arriving together are queued, and whichever request acquires the booking lock
+ * of the restaurant first drains the queue and processes the queued requests as one batch
+ * on behalf of the others. Every request has its own result, which the other requests wait for.
+ * <p>
+ * Disabled by default, bookings are processed one by one then.
+ */
+@Component
+public class BookingQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingQueue.class);
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Map<Long, Queue<BookingRequest>> queues = new ConcurrentHashMap<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Instantiates a new Booking queue.
+     *
+     * @param enabled      whether bookings are processed in batches
+     * @param maxBatchSize the maximum number of requests in a batch
+     */
+    @Autowired
+    public BookingQueue(@Value("${reserveit.booking.group-commit.enabled:false}") boolean enabled,
+                        @Value("${reserveit.booking.group-commit.max-batch-size:64}") int maxBatchSize) {
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Checks whether bookings are processed in batches.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a booking request.
+     *
+     * @param restaurantId   the restaurant id
+     * @param dateTime       the reservation date and time
+     * @param numberOfGuests the number of guests
+     * @param client         the client making the reservation
+     * @param holdId         the id of a table hold, may be {@code null}
+     * @return the queued request
+     */
+    public BookingRequest enqueue(long restaurantId,
+                                  LocalDateTime dateTime,
+                                  int numberOfGuests,
+                                  User client,
+                                  String holdId) {
+        BookingRequest request = new BookingRequest(dateTime, numberOfGuests, client, holdId);
+        queues.computeIfAbsent(restaurantId, id -> new ConcurrentLinkedQueue<>()).add(request);
+
+        return request;
+    }
+
+    /**
+     * Removes the next batch of requests of a restaurant from its queue.
+     * <p>
+     * Must be called holding the booking lock of the restaurant.
+     *
+     * @param restaurantId the restaurant id
+     * @return the list of requests in the queue order, empty if the queue is empty
+     */
+    public List<BookingRequest> drain(long restaurantId) {
+        Queue<BookingRequest> queue = queues.get(restaurantId);
+        if (queue == null) return List.of();
+
+        List<BookingRequest> batch = new ArrayList<>();
+        for (BookingRequest request = queue.poll(); request != null; request = queue.poll()) {
+            batch.add(request);
+            if (batch.size() == maxBatchSize) break;
+        }
+
+        if (!batch.isEmpty()) {
+            long batchesNumber = batches.incrementAndGet();
+            long requestsNumber = requests.addAndGet(batch.size());
+
+            logger.info("Drained batch of {} booking requests for restaurant id = {}. Batches = {}, average size = {}",
+                    batch.size(),
+                    restaurantId,
+                    batchesNumber,
+                    requestsNumber / batchesNumber);
+        }
+
+        return batch;
+    }
+
+    /**
+     * A queued booking request.
+     */
+    public static class BookingRequest {
+
+        private final LocalDateTime dateTime;
+        private final int numberOfGuests;
+        private final User client;
+        private final String holdId;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private BookingRequest(LocalDateTime dateTime,
+                               int numberOfGuests,
+                               User client,
+                               String holdId) {
+            this.dateTime = dateTime;
+            this.numberOfGuests = numberOfGuests;
+            this.client = client;
+            this.holdId = holdId;
+        }
+
+        /**
+         * Gets the reservation date and time.
+         *
+         * @return the date and time
+         */
+        public LocalDateTime getDateTime() {
+            return dateTime;
+        }
+
+        /**
+         * Gets the number of guests.
+         *
+         * @return the number of guests
+         */
+        public int getNumberOfGuests() {
+            return numberOfGuests;
+        }
+
+        /**
+         * Gets the client making the reservation.
+         *
+         * @return the client
+         */
+        public User getClient() {
+            return client;
+        }
+
+        /**
+         * Gets the id of the table hold.
+         *
+         * @return the hold id, may be {@code null}
+         */
+        public String getHoldId() {
+            return holdId;
+        }
+
+        /**
+         * Checks whether the request is processed.
+         *
+         * @return {@code true} if processed, {@code false} otherwise
+         */
+        public boolean isDone() {
+            return result.isDone();
+        }
+
+        /**
+         * Completes the request.
+         *
+         * @param reserved whether the reservation was created
+         */
+        public void complete(boolean reserved) {
+            result.complete(reserved);
+        }
+
+        /**
+         * Completes the request with a failure.
+         *
+         * @param e the failure
+         */
+        public void fail(RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+
+        /**
+         * Gets the result of a processed request.
+         *
+         * @return {@code true} if the reservation was created, {@code false} otherwise
+         * @throws RuntimeException the failure the request was completed with
+         */
+        public boolean getResult() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) throw re;
+                if (cause instanceof Error err) throw err;
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
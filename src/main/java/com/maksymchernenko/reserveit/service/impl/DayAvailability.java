@@ -0,0 +1,134 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Represents the availability of {@link RestaurantTable} objects for a number of guests
+ * during one working day of a {@link Restaurant}.
+ * <p>
+ * Stores the slot template of the day and one bit per table and slot which is set
+ * if the table is free for a reservation starting at that slot. The instance is not modified
+ * after creation, so it can be shared between requests.
+ */
+public class DayAvailability {
+
+    private final long restaurantId;
+    private final int numberOfGuests;
+    private final LocalDate day;
+    private final long midnightMinute;
+    private final List<RestaurantTable> tables;
+    private final int[] slots;
+    private final BitSet freeSlots;
+    private final int[] freeTablesNumbers;
+
+    /**
+     * Instantiates a new Day availability.
+     *
+     * @param restaurantId   the restaurant id
+     * @param numberOfGuests the number of guests
+     * @param day            the working day
+     * @param tables         the tables with enough seats
+     * @param slots          the slot template of the day, as minutes from the day midnight
+     * @param freeSlots      the free slot bits, indexed by {@code table * slots.length + slot}
+     */
+    public DayAvailability(long restaurantId,
+                           int numberOfGuests,
+                           LocalDate day,
+                           List<RestaurantTable> tables,
+                           int[] slots,
+                           BitSet freeSlots) {
+        this.restaurantId = restaurantId;
+        this.numberOfGuests = numberOfGuests;
+        this.day = day;
+        this.midnightMinute = SlotOccupancyIndex.toEpochMinute(day.atStartOfDay());
+        this.tables = List.copyOf(tables);
+        this.slots = slots;
+        this.freeSlots = freeSlots;
+        this.freeTablesNumbers = new int[slots.length];
+        for (int bit = freeSlots.nextSetBit(0); bit >= 0; bit = freeSlots.nextSetBit(bit + 1)) {
+            freeTablesNumbers[bit % slots.length]++;
+        }
+    }
+
+    /**
+     * Gets the restaurant id.
+     *
+     * @return the restaurant id
+     */
+    public long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * Gets the number of guests.
+     *
+     * @return the number of guests
+     */
+    public int getNumberOfGuests() {
+        return numberOfGuests;
+    }
+
+    /**
+     * Gets the working day.
+     *
+     * @return the working day
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the tables with enough seats.
+     *
+     * @return the unmodifiable list of tables
+     */
+    public List<RestaurantTable> getTables() {
+        return tables;
+    }
+
+    /**
+     * Gets the number of slots in the day.
+     *
+     * @return the number of slots
+     */
+    public int getSlotsNumber() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the start of a slot.
+     *
+     * @param slot the slot index
+     * @return the slot start as minutes of the epoch
+     */
+    public long getEpochMinute(int slot) {
+        return midnightMinute + slots[slot];
+    }
+
+    /**
+     * Gets the number of tables that are free for a reservation starting at a slot.
+     *
+     * @param slot the slot index
+     * @return the number of free tables
+     */
+    public int getFreeTablesNumber(int slot) {
+        return freeTablesNumbers[slot];
+    }
+
+    /**
+     * Checks whether a table is free for a reservation starting at a slot.
+     *
+     * @param table the table index in {@link #getTables()}
+     * @param slot  the slot index
+     * @return {@code true} if the table is free, {@code false} otherwise
+     */
+    public boolean isFree(int table,
+                          int slot) {
+        return freeSlots.get(table * slots.length + slot);
+    }
+}
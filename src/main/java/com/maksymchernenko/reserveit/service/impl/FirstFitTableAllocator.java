@@ -0,0 +1,37 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import com.maksymchernenko.reserveit.service.TableAllocator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implements {@link TableAllocator} interface for {@link Restaurant.AllocationStrategy#FIRST_FIT}.
+ * <p>
+ * Chooses the free table with the lowest number regardless of its number of seats.
+ */
+@Component
+public class FirstFitTableAllocator implements TableAllocator {
+
+    @Override
+    public Restaurant.AllocationStrategy getStrategy() {
+        return Restaurant.AllocationStrategy.FIRST_FIT;
+    }
+
+    @Override
+    public Optional<RestaurantTable> allocate(List<RestaurantTable> freeTables,
+                                              int numberOfGuests) {
+        RestaurantTable chosen = null;
+        for (RestaurantTable table : freeTables) {
+            if (table.getSeatsNumber() >= numberOfGuests
+                    && (chosen == null || table.getNumber() < chosen.getNumber())) {
+                chosen = table;
+            }
+        }
+
+        return Optional.ofNullable(chosen);
+    }
+}
@@ -0,0 +1,153 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel for a large number of short-lived timeouts.
+ * <p>
+ * Timeouts are hashed into a fixed ring of buckets by their deadline tick. A single worker thread
+ * advances the wheel once per tick and only visits the bucket of the current tick, so scheduling
+ * and cancelling cost constant time regardless of the number of pending timeouts.
+ * Deadlines further away than one round are kept in their bucket with a number of remaining rounds.
+ * <p>
+ * Timeouts fire at most one tick late. Tasks run on the worker thread and must be short.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startedAt;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Instantiates and starts a new Hashed wheel timer.
+     *
+     * @param tickMillis the tick duration in milliseconds
+     * @param wheelSize  the number of buckets, rounded up to a power of two
+     * @param threadName the worker thread name
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(long tickMillis,
+                            int wheelSize,
+                            String threadName) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new List[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.mask = buckets - 1;
+
+        this.startedAt = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task        the task
+     * @param delayMillis the delay in milliseconds
+     * @return the timeout which can be cancelled
+     */
+    public Timeout schedule(Runnable task,
+                            long delayMillis) {
+        long deadline = System.nanoTime() - startedAt + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        Timeout timeout = new Timeout(task, deadline);
+        scheduled.add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts are dropped.
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleepNanos = deadline - (System.nanoTime() - startedAt);
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+
+            transferScheduled();
+            wheel[(int) (tick & mask)].removeIf(this::expire);
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        for (Timeout timeout = scheduled.poll(); timeout != null; timeout = scheduled.poll()) {
+            if (timeout.cancelled) continue;
+
+            long deadlineTick = Math.max(tick, timeout.deadline / tickNanos);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private boolean expire(Timeout timeout) {
+        if (timeout.cancelled) return true;
+
+        if (timeout.remainingRounds > 0) {
+            timeout.remainingRounds--;
+
+            return false;
+        }
+
+        try {
+            timeout.task.run();
+        } catch (RuntimeException e) {
+            logger.warn("Timer task failed", e);
+        }
+
+        return true;
+    }
+
+    /**
+     * A scheduled task of a {@link HashedWheelTimer}.
+     */
+    public static class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task,
+                        long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout. The task does not run if it has not started yet.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
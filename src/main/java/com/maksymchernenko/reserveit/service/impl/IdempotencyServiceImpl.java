@@ -0,0 +1,211 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.IdempotencyKey;
+import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.repository.IdempotencyKeyRepository;
+import com.maksymchernenko.reserveit.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Implements {@link IdempotencyService} interface.
+ * <p>
+ * Outcomes are kept in a bounded in-memory cache of least recently used keys backed by the database,
+ * so replays are answered without a database round trip in most cases and survive restarts.
+ * Outcomes are stored per client and key and expire after a time to live, expired outcomes
+ * are deleted periodically. Operations failed with an exception are not stored and can be submitted again.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final int KEY_LENGTH = 36;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSize;
+    private final long timeToLiveHours;
+
+    private final LinkedHashMap<String, IdempotencyKey> outcomes;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new {@link IdempotencyService}.
+     *
+     * @param idempotencyKeyRepository the {@link IdempotencyKeyRepository}
+     * @param transactionManager       the transaction manager used for storing outcomes
+     * @param maxSize                  the maximum number of outcomes cached in memory
+     * @param timeToLiveHours          the outcome time to live in hours
+     */
+    @Autowired
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${reserveit.idempotency.cache.max-size:10000}") int maxSize,
+                                  @Value("${reserveit.idempotency.time-to-live-hours:24}") long timeToLiveHours) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSize = maxSize;
+        this.timeToLiveHours = timeToLiveHours;
+        this.outcomes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKey> eldest) {
+                return size() > IdempotencyServiceImpl.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The in-memory cache is checked first, then the database. Concurrent submissions
+     * of the same key by the same client wait for the first one. A key which is not a UUID
+     * created by {@link #newKey()} does not fit the stored request key, so the operation
+     * is executed without deduplication.
+     */
+    @Override
+    public boolean execute(User client,
+                           String key,
+                           String operation,
+                           BooleanSupplier action) {
+        if (key == null || key.isBlank()) return action.getAsBoolean();
+        if (!isValidKey(key)) {
+            logger.warn("Ignoring malformed idempotency key of client id = {} for operation = {}",
+                    client.getId(),
+                    operation);
+
+            return action.getAsBoolean();
+        }
+
+        long clientId = client.getId();
+        String cacheKey = clientId + ":" + key;
+
+        Optional<IdempotencyKey> cached = getCached(cacheKey);
+        if (cached.isPresent()) return replay(cached.get(), operation);
+
+        CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        CompletableFuture<Boolean> processing = inFlight.putIfAbsent(cacheKey, outcome);
+        if (processing != null) {
+            logger.info("Waiting for idempotency key with client id = {}, request key = {} being processed",
+                    clientId,
+                    key);
+
+            try {
+                return processing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) throw re;
+                if (cause instanceof Error err) throw err;
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        try {
+            Optional<IdempotencyKey> stored = getCached(cacheKey).or(() -> idempotencyKeyRepository.get(clientId, key)
+                    .filter(idempotencyKey -> !isExpired(idempotencyKey)));
+            if (stored.isPresent()) {
+                cache(cacheKey, stored.get());
+                boolean result = replay(stored.get(), operation);
+                outcome.complete(result);
+
+                return result;
+            }
+
+            boolean result = action.getAsBoolean();
+
+            IdempotencyKey idempotencyKey = new IdempotencyKey(clientId, key, operation, result, LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(transactionStatus -> idempotencyKeyRepository.save(idempotencyKey));
+            cache(cacheKey, idempotencyKey);
+            outcome.complete(result);
+
+            return result;
+        } catch (RuntimeException e) {
+            outcome.completeExceptionally(e);
+
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, outcome);
+        }
+    }
+
+    /**
+     * Deletes expired outcomes from the database.
+     */
+    @Scheduled(fixedDelayString = "${reserveit.idempotency.purge.fixed-delay-millis:3600000}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(transactionStatus ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(timeToLiveHours)));
+
+        if (deleted != null && deleted > 0) {
+            logger.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private boolean replay(IdempotencyKey idempotencyKey,
+                           String operation) {
+        if (!idempotencyKey.getOperation().equals(operation)) {
+            logger.warn("Idempotency key with request key = {} replayed for operation = {}, stored for operation = {}",
+                    idempotencyKey.getRequestKey(),
+                    operation,
+                    idempotencyKey.getOperation());
+
+            return false;
+        }
+
+        logger.info("Replaying outcome of idempotency key = {}", idempotencyKey);
+
+        return idempotencyKey.isResult();
+    }
+
+    private synchronized Optional<IdempotencyKey> getCached(String key) {
+        IdempotencyKey idempotencyKey = outcomes.get(key);
+        if (idempotencyKey != null && isExpired(idempotencyKey)) {
+            outcomes.remove(key);
+            idempotencyKey = null;
+        }
+
+        return Optional.ofNullable(idempotencyKey);
+    }
+
+    private synchronized void cache(String cacheKey,
+                                    IdempotencyKey idempotencyKey) {
+        outcomes.put(cacheKey, idempotencyKey);
+    }
+
+    private static boolean isValidKey(String key) {
+        if (key.length() != KEY_LENGTH) return false;
+
+        try {
+            UUID.fromString(key);
+
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(IdempotencyKey idempotencyKey) {
+        return idempotencyKey.getCreatedAt().isBefore(LocalDateTime.now().minusHours(timeToLiveHours));
+    }
+}
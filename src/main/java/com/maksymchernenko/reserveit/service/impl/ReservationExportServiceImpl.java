@@ -0,0 +1,123 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.ReservationDTO;
+import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import com.maksymchernenko.reserveit.service.ReservationExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Implements {@link ReservationExportService} interface.
+ * <p>
+ * Rows are read by a forward-only cursor as {@link ReservationDTO} objects, which are not kept
+ * in the persistence context, and written to the stream one by one, so an export of any size
+ * takes constant memory.
+ */
+@Service
+public class ReservationExportServiceImpl implements ReservationExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExportServiceImpl.class);
+
+    private static final String HEADER = "id,restaurant,address,table,client,date_time,guests,status";
+
+    private final ReservationRepository reservationRepository;
+    private final int fetchSize;
+
+    /**
+     * Instantiates a new {@link ReservationExportService}.
+     *
+     * @param reservationRepository the {@link ReservationRepository}
+     * @param fetchSize             the number of rows fetched from the database at a time,
+     *                              {@code 0} or less for rows streamed one by one
+     */
+    @Autowired
+    public ReservationExportServiceImpl(ReservationRepository reservationRepository,
+                                        @Value("${reserveit.reservation.export.fetch-size:0}") int fetchSize) {
+        this.reservationRepository = reservationRepository;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The status is the effective status. Text values starting with a formula character, a tab
+     * or a carriage return are prefixed with an apostrophe, so spreadsheets do not evaluate them.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void exportCsv(User manager,
+                          LocalDate from,
+                          LocalDate to,
+                          OutputStream outputStream) throws IOException {
+        logger.info("Exporting reservations with manager = {}, from = {}, to = {}",
+                manager,
+                from,
+                to);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+
+        long rows = 0;
+        try (Stream<ReservationDTO> reservations = reservationRepository.streamByManagerAndPeriod(manager,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(),
+                fetchSize)) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Iterator<ReservationDTO> iterator = reservations.iterator(); iterator.hasNext(); rows++) {
+                ReservationDTO reservation = iterator.next();
+
+                writer.write(String.valueOf(reservation.getId()));
+                writer.write(',');
+                writer.write(escape(reservation.getRestaurantName()));
+                writer.write(',');
+                writer.write(escape(reservation.getRestaurantAddress()));
+                writer.write(',');
+                writer.write(reservation.getTableNumber() == null ? "" : String.valueOf(reservation.getTableNumber()));
+                writer.write(',');
+                writer.write(escape(reservation.getClientFirstName()));
+                writer.write(',');
+                writer.write(String.valueOf(reservation.getDayTime()));
+                writer.write(',');
+                writer.write(String.valueOf(reservation.getGuestsNumber()));
+                writer.write(',');
+                writer.write(reservation.getEffectiveStatus(now).name());
+                writer.write("\r\n");
+            }
+        }
+        writer.flush();
+
+        logger.info("Exported {} reservations", rows);
+    }
+
+    private static String escape(String value) {
+        if (value == null || value.isEmpty()) return "";
+
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,24 +2,39 @@ package com.maksymchernenko.reserveit.service.impl;
 
 import com.maksymchernenko.reserveit.exceptions.ReservationNotFoundException;
 import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
+import com.maksymchernenko.reserveit.model.Restaurant;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.model.User;
-import com.maksymchernenko.reserveit.model.WorkingTime;
+import com.maksymchernenko.reserveit.model.dto.AvailableDayDTO;
+import com.maksymchernenko.reserveit.model.dto.AvailableTimeDTO;
+import com.maksymchernenko.reserveit.model.dto.ReservationCursor;
+import com.maksymchernenko.reserveit.model.dto.ReservationDTO;
+import com.maksymchernenko.reserveit.model.dto.ReservationPageDTO;
+import com.maksymchernenko.reserveit.model.dto.SlotHoldDTO;
 import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import com.maksymchernenko.reserveit.repository.ReservationSlotRepository;
 import com.maksymchernenko.reserveit.repository.RestaurantTableRepository;
-import com.maksymchernenko.reserveit.repository.WorkingTimeRepository;
 import com.maksymchernenko.reserveit.service.ReservationService;
+import com.maksymchernenko.reserveit.service.TableAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Implements {@link ReservationService} interface.
@@ -31,24 +46,65 @@ public class ReservationServiceImpl implements ReservationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservationServiceImpl.class);
 
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
     private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository reservationSlotRepository;
     private final RestaurantTableRepository restaurantTableRepository;
-    private final WorkingTimeRepository workingTimeRepository;
+    private final SlotTemplateCache slotTemplateCache;
+    private final AvailabilityCache availabilityCache;
+    private final Map<Restaurant.AllocationStrategy, TableAllocator> tableAllocators =
+            new EnumMap<>(Restaurant.AllocationStrategy.class);
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLockManager stripedLockManager;
+    private final SlotHoldManager slotHoldManager;
+    private final BookingQueue bookingQueue;
+    private final int maxUpdateAttempts;
+    private final int pageSize;
 
     /**
      * Instantiates a new {@link ReservationService}.
      *
      * @param reservationRepository     the {@link ReservationRepository}
+     * @param reservationSlotRepository the {@link ReservationSlotRepository}
      * @param restaurantTableRepository the {@link RestaurantTableRepository}
-     * @param workingTimeRepository     the {@link WorkingTimeRepository}
+     * @param slotTemplateCache         the {@link SlotTemplateCache}
+     * @param availabilityCache         the {@link AvailabilityCache}
+     * @param tableAllocators           the {@link TableAllocator} implementations
+     * @param transactionManager        the transaction manager used for retried updates
+     * @param maxUpdateAttempts         the maximum number of attempts of an update conflicting with a concurrent one
+     * @param stripedLockManager        the {@link StripedLockManager}
+     * @param slotHoldManager           the {@link SlotHoldManager}
+     * @param bookingQueue              the {@link BookingQueue}
+     * @param pageSize                  the maximum number of reservations in a page of a reservation list
      */
     @Autowired
     public ReservationServiceImpl(ReservationRepository reservationRepository,
+                                  ReservationSlotRepository reservationSlotRepository,
                                   RestaurantTableRepository restaurantTableRepository,
-                                  WorkingTimeRepository workingTimeRepository) {
+                                  SlotTemplateCache slotTemplateCache,
+                                  AvailabilityCache availabilityCache,
+                                  List<TableAllocator> tableAllocators,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${reserveit.reservation.update.max-attempts:3}") int maxUpdateAttempts,
+                                  StripedLockManager stripedLockManager,
+                                  SlotHoldManager slotHoldManager,
+                                  BookingQueue bookingQueue,
+                                  @Value("${reserveit.reservation.page-size:20}") int pageSize) {
         this.reservationRepository = reservationRepository;
+        this.reservationSlotRepository = reservationSlotRepository;
         this.restaurantTableRepository = restaurantTableRepository;
-        this.workingTimeRepository = workingTimeRepository;
+        this.slotTemplateCache = slotTemplateCache;
+        this.availabilityCache = availabilityCache;
+        for (TableAllocator tableAllocator : tableAllocators) {
+            this.tableAllocators.put(tableAllocator.getStrategy(), tableAllocator);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxUpdateAttempts = Math.max(1, maxUpdateAttempts);
+        this.stripedLockManager = stripedLockManager;
+        this.slotHoldManager = slotHoldManager;
+        this.bookingQueue = bookingQueue;
+        this.pageSize = Math.max(1, pageSize);
     }
 
     /**
@@ -56,16 +112,28 @@ public class ReservationServiceImpl implements ReservationService {
      * <p>
      * The actual reservation has a {@link Reservation.Status#PENDING} or {@link Reservation.Status#RESERVED}
      * <p>
-     * Finishes passed reservations by setting a status to {@link Reservation.Status#FINISHED}
+     * Reserved reservations which ended are excluded by time, whether or not they are already finished
+     * by {@link ReservationSweeper}
      */
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public List<Reservation> getActualByClient(User client) {
-        finishPassedReservations();
+    public ReservationPageDTO getActualByClient(User client,
+                                                String after,
+                                                String before) {
+        logger.info("Getting actual reservations with client = {}, after = {}, before = {}",
+                client,
+                after,
+                before);
 
-        logger.info("Getting actual reservations with client = {}", client);
+        PageRequest request = PageRequest.of(after, before, Objects::isNull);
 
-        return reservationRepository.getByClientAndStatuses(client, List.of(Reservation.Status.PENDING, Reservation.Status.RESERVED));
+        return toPage(reservationRepository.getActualByClient(client,
+                        LocalDateTime.now().minusHours(RESERVATION_DURATION_OF_HOURS),
+                        request.cursor(),
+                        request.backward(),
+                        pageSize + 1),
+                request,
+                null);
     }
 
     /**
@@ -73,106 +141,210 @@ public class ReservationServiceImpl implements ReservationService {
      * <p>
      * The historical reservation has a status {@link Reservation.Status#CANCELED} or {@link Reservation.Status#FINISHED}
      * <p>
-     * Finishes passed reservations by setting a status to {@link Reservation.Status#FINISHED}
+     * Reserved reservations which ended are included by time, whether or not they are already finished
+     * by {@link ReservationSweeper}
      */
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public List<Reservation> getHistoryByClient(User client) {
-        finishPassedReservations();
+    public ReservationPageDTO getHistoryByClient(User client,
+                                                 String after,
+                                                 String before) {
+        logger.info("Getting history reservations with client = {}, after = {}, before = {}",
+                client,
+                after,
+                before);
 
-        logger.info("Getting history reservations with client = {}", client);
+        PageRequest request = PageRequest.of(after, before, Objects::isNull);
 
-        return reservationRepository.getByClientAndStatuses(client, List.of(Reservation.Status.CANCELED, Reservation.Status.FINISHED));
+        return toPage(reservationRepository.getHistoryByClient(client,
+                        LocalDateTime.now().minusHours(RESERVATION_DURATION_OF_HOURS),
+                        request.cursor(),
+                        request.backward(),
+                        pageSize + 1),
+                request,
+                null);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Finishes passed reservations by setting a status to {@link Reservation.Status#FINISHED}
+     * Reservations of other managers are excluded and the reservations are sorted in the database.
+     * Without a first day, reservations which ended are excluded
+     * <p>
+     * The status and restaurant filters sort by the stored status and the restaurant name first,
+     * other filters sort by date and time only
      */
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public List<Reservation> getAll(String filter,
-                                    User manager) {
-        finishPassedReservations();
-
-        logger.info("Getting all reservations with filter = {}, manager = {}",
+    public ReservationPageDTO getAll(String filter,
+                                     User manager,
+                                     LocalDate from,
+                                     LocalDate to,
+                                     String after,
+                                     String before) {
+        logger.info("Getting all reservations with filter = {}, manager = {}, from = {}, to = {}, after = {}, before = {}",
                 filter,
-                manager);
+                manager,
+                from,
+                to,
+                after,
+                before);
 
-        List<Reservation> reservations =  reservationRepository.getAll();
-        reservations.removeIf(reservation -> reservation.getManager() != null && !reservation.getManager().equals(manager));
-        switch (filter) {
-            case "status" -> reservations.sort(Comparator.comparing(Reservation::getStatus));
-            case "dateTime" -> reservations.sort(Comparator.comparing(Reservation::getDayTime));
-            case "restaurant" -> reservations.sort(Comparator.comparing(r -> r.getTable().getRestaurant().getName()));
-            default -> {}
-        }
+        Function<ReservationDTO, String> sortKey = switch (filter) {
+            case "status" -> reservation -> reservation.getStatus().name();
+            case "restaurant" -> reservation -> reservation.getRestaurantName() == null
+                    ? ""
+                    : reservation.getRestaurantName();
+            default -> null;
+        };
+        Predicate<String> validKey = switch (filter) {
+            case "status" -> key -> key != null && Arrays.stream(Reservation.Status.values())
+                    .anyMatch(status -> status.name().equals(key));
+            case "restaurant" -> Objects::nonNull;
+            default -> Objects::isNull;
+        };
+        PageRequest request = PageRequest.of(after, before, validKey);
 
-        return reservations;
+        return toPage(reservationRepository.getByManagerAndPeriod(manager,
+                        from == null ? LocalDateTime.now().minusHours(RESERVATION_DURATION_OF_HOURS) : from.atStartOfDay(),
+                        to == null ? null : to.plusDays(1).atStartOfDay(),
+                        filter,
+                        request.cursor(),
+                        request.backward(),
+                        pageSize + 1),
+                request,
+                sortKey);
     }
 
-    private void finishPassedReservations() {
-        List<Reservation> reservations = reservationRepository.getAll();
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the requested day is computed, so the cost does not depend on the length
+     * of the reservation period. The first day also contains the rest of an overnight shift
+     * started yesterday. {@link DayAvailability} objects are served from {@link AvailabilityCache}
+     * when possible and already passed times are dropped. Tables held in {@link SlotHoldManager}
+     * count as occupied
+     */
+    @Override
+    public AvailableDayDTO getAvailableDay(long restaurantId,
+                                           int numberOfGuests,
+                                           LocalDate day) {
+        logger.info("Getting available day = {} for restaurant id = {}, number of guests = {}",
+                day,
+                restaurantId,
+                numberOfGuests);
 
-        logger.info("Finishing passed reservations");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate lastDay = today.plusDays(getReservationDays(restaurantId) - 1);
+        LocalDate page = day == null || day.isBefore(today) ? today : day.isAfter(lastDay) ? lastDay : day;
 
-        for (Reservation reservation : reservations) {
-            if (reservation.getStatus() == Reservation.Status.RESERVED
-                    && LocalDateTime.now().isAfter(reservation.getDayTime().plusHours(RESERVATION_DURATION_OF_HOURS))) {
+        LocalDate firstDay = page.equals(today) ? today.minusDays(1) : page;
+        List<DayAvailability> days = getDayAvailabilities(restaurantId, numberOfGuests,
+                firstDay, (int) ChronoUnit.DAYS.between(firstDay, page) + 1);
 
-                reservation.setStatus(Reservation.Status.FINISHED);
-                reservationRepository.update(reservation);
-            }
-        }
+        return new AvailableDayDTO(page,
+                page.equals(today) ? null : page.minusDays(1),
+                page.equals(lastDay) ? null : page.plusDays(1),
+                collectAvailableTimes(days,
+                        slotHoldManager.getHolds(restaurantId),
+                        SlotOccupancyIndex.toEpochMinute(now),
+                        Long.MIN_VALUE,
+                        Long.MAX_VALUE));
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Gets suitable tables, generates nearest time slots removing already reserved times
+     * Only the working days overlapping the period and the reservation period of the restaurant
+     * are computed, served from {@link AvailabilityCache} when possible. Tables held
+     * in {@link SlotHoldManager} count as occupied
      */
     @Override
-    public Map<RestaurantTable, List<LocalDateTime>> getAvailableTablesMap(long restaurantId,
-                                                                           int numberOfGuests) {
-        List<RestaurantTable> tables = restaurantTableRepository.getBySeatsNumber(restaurantId, numberOfGuests);
-        List<WorkingTime> times = workingTimeRepository.getByDaysNumber(restaurantId, AVAILABLE_DAYS_FOR_RESERVATION);
-        List<Reservation> allReservations = reservationRepository.getAll();
-
-        logger.info("Getting available tables map for restaurant id = {}, number of guests = {}",
-                restaurantId,
+    public List<AvailableTimeDTO> getAvailableTimes(Restaurant restaurant,
+                                                    int numberOfGuests,
+                                                    LocalDateTime from,
+                                                    LocalDateTime to) {
+        logger.info("Getting available times from = {} to = {} for restaurant id = {}, number of guests = {}",
+                from,
+                to,
+                restaurant.getId(),
                 numberOfGuests);
 
-        Map<RestaurantTable, List<LocalDateTime>> map = new HashMap<>();
-        for (RestaurantTable table : tables) {
-            map.put(table, new ArrayList<>());
-            for (WorkingTime workingTime : times) {
-                List<LocalDateTime> dateTimes = new ArrayList<>();
-                Map<LocalTime, Integer> generatedTimes = generateTimes(workingTime.getOpenTime(), workingTime.getCloseTime().minusHours(RESERVATION_DURATION_OF_HOURS));
-
-                generatedTimes.forEach((time, day) -> {
-                    LocalDate nearestDate = getNearestDate(day == 1 ? workingTime.getDayOfWeek() : workingTime.getDayOfWeek().plus(1));
-                    if (!nearestDate.equals(LocalDate.now())
-                            || nearestDate.equals(LocalDate.now())
-                            && time.isAfter(LocalTime.now())) {
-                        dateTimes.add(LocalDateTime.of(nearestDate, time));
-                    }
-                });
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate periodFirstDay = today.minusDays(1);
+        LocalDate periodLastDay = today.plusDays(getReservationDays(restaurant) - 1);
 
-                map.get(table).addAll(dateTimes);
-            }
+        LocalDate firstDay = from.toLocalDate().minusDays(1);
+        if (firstDay.isBefore(periodFirstDay)) firstDay = periodFirstDay;
+        LocalDate lastDay = to.toLocalDate();
+        if (lastDay.isAfter(periodLastDay)) lastDay = periodLastDay;
+        if (firstDay.isAfter(lastDay)) return new ArrayList<>();
+
+        List<DayAvailability> days = getDayAvailabilities(restaurant.getId(), numberOfGuests,
+                firstDay, (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1);
+
+        return collectAvailableTimes(days,
+                slotHoldManager.getHolds(restaurant.getId()),
+                SlotOccupancyIndex.toEpochMinute(now),
+                SlotOccupancyIndex.toEpochMinute(from),
+                SlotOccupancyIndex.toEpochMinute(to));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The times within the current reservation period that belong to the requested day
+     * are added for the reserved table if it has enough seats
+     */
+    @Override
+    public AvailableDayDTO getAvailableDay(Reservation reservation,
+                                           int numberOfGuests,
+                                           LocalDate day) {
+        long restaurantId = reservation.getTable().getRestaurant().getId();
+        long reservationMinute = SlotOccupancyIndex.toEpochMinute(reservation.getDayTime());
+        if (day == null) {
+            LocalDate reservationDay = reservation.getDayTime().toLocalDate();
+            day = isWorkingDaySlot(restaurantId, reservationDay, reservationMinute)
+                    ? reservationDay
+                    : reservationDay.minusDays(1);
         }
 
-        for (Reservation reservation : allReservations) {
-            if ((reservation.getStatus() == Reservation.Status.PENDING
-                    || reservation.getStatus() == Reservation.Status.RESERVED)
-                    && map.containsKey(reservation.getTable())) {
-                List<LocalDateTime> availableTimes = map.get(reservation.getTable());
-                removeDateTimes(availableTimes, reservation.getDayTime(), reservation.getDayTime().plusHours(RESERVATION_DURATION_OF_HOURS));
+        AvailableDayDTO availableDay = getAvailableDay(restaurantId, numberOfGuests, day);
+        if (reservation.getTable().getSeatsNumber() < numberOfGuests) return availableDay;
+
+        long nowMinute = SlotOccupancyIndex.toEpochMinute(LocalDateTime.now());
+        LocalDate page = availableDay.getDay();
+        boolean firstPage = availableDay.getPreviousDay() == null;
+
+        List<AvailableTimeDTO> availableTimes = availableDay.getAvailableTimes();
+        List<AvailableTimeDTO> mergedTimes = new ArrayList<>(availableTimes.size() + SlotOccupancyIndex.RESERVATION_SLOTS + 1);
+        int i = 0;
+        for (int slot = 0; slot <= SlotOccupancyIndex.RESERVATION_SLOTS; slot++) {
+            long minute = reservationMinute + (long) slot * MINUTES_INTERVAL;
+            if (minute <= nowMinute
+                    || !(isWorkingDaySlot(restaurantId, page, minute)
+                    || firstPage && isWorkingDaySlot(restaurantId, page.minusDays(1), minute))) {
+                continue;
             }
+
+            while (i < availableTimes.size() && availableTimes.get(i).getEpochMinute() < minute) {
+                mergedTimes.add(availableTimes.get(i++));
+            }
+
+            if (i < availableTimes.size() && availableTimes.get(i).getEpochMinute() == minute) {
+                mergedTimes.add(new AvailableTimeDTO(minute, availableTimes.get(i++).getFreeTablesNumber() + 1));
+            } else {
+                mergedTimes.add(new AvailableTimeDTO(minute, 1));
+            }
+        }
+        while (i < availableTimes.size()) {
+            mergedTimes.add(availableTimes.get(i++));
         }
+        availableDay.setAvailableTimes(mergedTimes);
 
-        return map;
+        return availableDay;
     }
 
     @Override
@@ -194,22 +366,339 @@ public class ReservationServiceImpl implements ReservationService {
     /**
      * {@inheritDoc}
      * <p>
-     * Creates a new reservation object with status {@link Reservation.Status#PENDING}
+     * Chooses a free table by the restaurant {@link TableAllocator} and places a hold
+     * in {@link SlotHoldManager}, releasing the previous hold of the client.
+     * <p>
+     * Runs holding the booking lock of the restaurant
+     */
+    @Override
+    public SlotHoldDTO holdTable(long restaurantId,
+                                 LocalDateTime dateTime,
+                                 int numberOfGuests,
+                                 User client) {
+        return stripedLockManager.executeLocked(restaurantId, () -> {
+            RestaurantTable restaurantTable = findFreeTable(restaurantId, dateTime, numberOfGuests, null, client, null);
+
+            if (restaurantTable == null) {
+                logger.warn("Holding failed. No tables available.");
+
+                return null;
+            }
+
+            logger.info("Holding table with id = {}, dateTime = {}, number of guests = {}, client = {}",
+                    restaurantTable.getId(),
+                    dateTime,
+                    numberOfGuests,
+                    client);
+
+            SlotHoldManager.SlotHold hold = slotHoldManager.place(restaurantId,
+                    restaurantTable.getId(),
+                    SlotOccupancyIndex.toEpochMinute(dateTime),
+                    client);
+
+            return new SlotHoldDTO(hold.id(), restaurantId, dateTime, numberOfGuests, hold.expiresAt());
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Chooses the held table if the hold is still active, a free table by the restaurant {@link TableAllocator}
+     * otherwise, creates a new reservation object with status {@link Reservation.Status#PENDING}
+     * and invalidates the cached availability of the restaurant. The hold is released once reserved.
+     * <p>
+     * The reservation slots are occupied in a single insert guarded by a unique constraint,
+     * so a concurrent reservation of the same slots rolls the transaction back.
+     * <p>
+     * Runs in a new transaction holding the booking lock of the restaurant. If {@link BookingQueue}
+     * is enabled, the request is queued and reservations requested together are created in one transaction
      */
-    @Transactional
     @Override
     public boolean reserve(long restaurantId,
                            LocalDateTime dateTime,
                            int numberOfGuests,
-                           User client) {
-        Reservation.Status status = Reservation.Status.PENDING;
-        RestaurantTable restaurantTable = null;
-        for (Map.Entry<RestaurantTable, List<LocalDateTime>> entry : getAvailableTablesMap(restaurantId, numberOfGuests).entrySet()) {
-            if (entry.getValue().contains(dateTime)) {
-                restaurantTable = entry.getKey();
+                           User client,
+                           String holdId) {
+        if (bookingQueue.isEnabled()) {
+            BookingQueue.BookingRequest request = bookingQueue.enqueue(restaurantId, dateTime, numberOfGuests, client, holdId);
+
+            stripedLockManager.executeLocked(restaurantId, () -> {
+                while (!request.isDone()) {
+                    processBatch(restaurantId, bookingQueue.drain(restaurantId));
+                }
+
+                return null;
+            });
+
+            return request.getResult();
+        }
+
+        return stripedLockManager.executeLocked(restaurantId,
+                () -> reserveLocked(restaurantId, dateTime, numberOfGuests, client, holdId));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sets a reservation status to {@link Reservation.Status#PENDING},
+     * moves the reservation slots and invalidates the cached availability of the restaurant.
+     * Canceled and finished reservations are not updated.
+     * <p>
+     * Runs in a new transaction holding the booking lock of the restaurant,
+     * which is retried on a concurrent update of the reservation and fails if the update keeps conflicting
+     */
+    @Override
+    public boolean updateReservation(long id,
+                                     LocalDateTime dateTime,
+                                     int numberOfGuests) {
+        RestaurantTable currentTable = this.getReservation(id).getTable();
+        if (currentTable == null) {
+            logger.warn("Reservation update failed. Reservation has no table.");
+
+            return false;
+        }
+
+        return stripedLockManager.executeLocked(currentTable.getRestaurant().getId(),
+                () -> executeWithRetry("Updating reservation with id = " + id,
+                        transactionStatus -> moveReservation(transactionStatus, id, dateTime, numberOfGuests)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Releases the reservation slots and invalidates the cached availability of the reservation restaurant.
+     */
+    @Transactional
+    @Override
+    public void cancelReservation(long id) {
+        Reservation reservation = this.getReservation(id);
+
+        logger.info("Canceling reservation with id = {}", id);
+
+        reservationRepository.cancelReservation(id);
+        reservationSlotRepository.release(id);
+        invalidateAvailability(reservation);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sets a reservation status to {@link Reservation.Status#RESERVED}
+     * and assigns a {@link User} (manager). Only pending reservations are submitted.
+     * <p>
+     * Invalidates the cached availability of the reservation restaurant.
+     * <p>
+     * Runs in a new transaction which is retried on a concurrent update of the reservation,
+     * is skipped if the submission keeps conflicting.
+     */
+    @Override
+    public void submitReservation(long id,
+                                  User manager) {
+        executeWithRetry("Submitting reservation with id = " + id, transactionStatus -> {
+            Reservation reservation = this.getReservation(id);
+            if (reservation.getStatus() != Reservation.Status.PENDING) {
+                logger.warn("Reservation submission skipped. Reservation is {}.", reservation.getStatus());
+
+                return false;
+            }
+
+            reservation.setStatus(Reservation.Status.RESERVED);
+            reservation.setManager(manager);
+
+            logger.info("Submitting reservation with id = {}", id);
+
+            reservationRepository.update(reservation);
+            invalidateAvailability(reservation);
+
+            return true;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sets the reservation statuses to {@link Reservation.Status#RESERVED} and assigns the {@link User} (manager)
+     * in a single update. Reservations which are not pending or belong to another manager are skipped.
+     * <p>
+     * Invalidates the cached availability of the reservation restaurants.
+     */
+    @Transactional
+    @Override
+    public int submitReservations(List<Long> ids,
+                                  User manager) {
+        logger.info("Submitting reservations with ids = {}", ids);
+
+        List<Long> restaurantIds = reservationRepository.getRestaurantIds(ids);
+        int submitted = reservationRepository.submitReservations(ids, manager);
+        restaurantIds.forEach(availabilityCache::invalidate);
+
+        return submitted;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sets the reservation statuses to {@link Reservation.Status#CANCELED} in a single update
+     * and releases the reservation slots in a single delete. Reservations which are not active,
+     * including reserved reservations which already ended as by {@link Reservation#getEffectiveStatus()},
+     * or belong to another manager are skipped.
+     * <p>
+     * Invalidates the cached availability of the reservation restaurants.
+     */
+    @Transactional
+    @Override
+    public int cancelReservations(List<Long> ids,
+                                  User manager) {
+        logger.info("Canceling reservations with ids = {}", ids);
+
+        List<Long> restaurantIds = reservationRepository.getRestaurantIds(ids);
+        int cancelled = reservationRepository.cancelReservations(ids, manager,
+                LocalDateTime.now().minusHours(RESERVATION_DURATION_OF_HOURS));
+        reservationSlotRepository.releaseCanceled(ids);
+        restaurantIds.forEach(availabilityCache::invalidate);
+
+        return cancelled;
+    }
+
+    private boolean reserveLocked(long restaurantId,
+                                  LocalDateTime dateTime,
+                                  int numberOfGuests,
+                                  User client,
+                                  String holdId) {
+        Long heldTableId = getHeldTableId(restaurantId, dateTime, client, holdId);
+
+        boolean reserved = Boolean.TRUE.equals(transactionTemplate.execute(transactionStatus ->
+                createReservation(transactionStatus, restaurantId, dateTime, numberOfGuests, client, heldTableId)));
+        if (reserved && holdId != null) {
+            slotHoldManager.release(holdId);
+        }
+
+        return reserved;
+    }
+
+    private Long getHeldTableId(long restaurantId,
+                                LocalDateTime dateTime,
+                                User client,
+                                String holdId) {
+        return slotHoldManager.get(holdId, client)
+                .filter(hold -> hold.restaurantId() == restaurantId
+                        && hold.startMinute() == SlotOccupancyIndex.toEpochMinute(dateTime))
+                .map(SlotHoldManager.SlotHold::tableId)
+                .orElse(null);
+    }
+
+    private void processBatch(long restaurantId,
+                              List<BookingQueue.BookingRequest> batch) {
+        if (batch.isEmpty()) return;
+
+        try {
+            boolean[] results = null;
+            try {
+                results = transactionTemplate.execute(transactionStatus -> createReservations(transactionStatus, restaurantId, batch));
+            } catch (RuntimeException e) {
+                logger.warn("Batch reservation failed for restaurant id = {}. Reserving one by one.", restaurantId, e);
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                BookingQueue.BookingRequest request = batch.get(i);
+                if (results != null) {
+                    if (results[i] && request.getHoldId() != null) {
+                        slotHoldManager.release(request.getHoldId());
+                    }
+                    request.complete(results[i]);
+                    continue;
+                }
+
+                try {
+                    request.complete(reserveLocked(restaurantId,
+                            request.getDateTime(),
+                            request.getNumberOfGuests(),
+                            request.getClient(),
+                            request.getHoldId()));
+                } catch (RuntimeException e) {
+                    request.fail(e);
+                }
+            }
+        } finally {
+            for (BookingQueue.BookingRequest request : batch) {
+                if (!request.isDone()) {
+                    request.fail(new IllegalStateException("Booking request was not processed"));
+                }
+            }
+        }
+    }
+
+    private boolean[] createReservations(TransactionStatus transactionStatus,
+                                         long restaurantId,
+                                         List<BookingQueue.BookingRequest> batch) {
+        int minGuests = Integer.MAX_VALUE;
+        LocalDate firstDay = null;
+        LocalDate lastDay = null;
+        for (BookingQueue.BookingRequest request : batch) {
+            LocalDate day = request.getDateTime().toLocalDate();
+            minGuests = Math.min(minGuests, request.getNumberOfGuests());
+            if (firstDay == null || day.isBefore(firstDay)) firstDay = day;
+            if (lastDay == null || day.isAfter(lastDay)) lastDay = day;
+        }
+
+        List<RestaurantTable> tables = restaurantTableRepository.getBySeatsNumber(restaurantId, minGuests);
+        SlotOccupancyIndex index = buildOccupancyIndex(tables, firstDay, (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 2);
+
+        logger.info("Reserving batch of {} requests for restaurant id = {}", batch.size(), restaurantId);
+
+        boolean[] results = new boolean[batch.size()];
+        List<ReservationSlot> slots = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            BookingQueue.BookingRequest request = batch.get(i);
+            if (!isBookable(restaurantId, request.getDateTime())) continue;
+
+            long minute = SlotOccupancyIndex.toEpochMinute(request.getDateTime());
+            List<RestaurantTable> freeTables = new ArrayList<>();
+            for (RestaurantTable table : tables) {
+                if (table.getSeatsNumber() >= request.getNumberOfGuests()
+                        && index.isFree(table.getId(), minute)
+                        && !slotHoldManager.isHeld(restaurantId, table.getId(), minute, request.getClient())) {
+                    freeTables.add(table);
+                }
+            }
+
+            RestaurantTable restaurantTable = allocateTable(freeTables, request.getNumberOfGuests(),
+                    getHeldTableId(restaurantId, request.getDateTime(), request.getClient(), request.getHoldId()));
+            if (restaurantTable == null) continue;
+
+            Reservation reservation = reservationRepository.reserve(restaurantTable, request.getClient(),
+                    Reservation.Status.PENDING, request.getDateTime(), request.getNumberOfGuests());
+            for (LocalDateTime slotStart : SlotOccupancyIndex.getSlotStarts(request.getDateTime())) {
+                ReservationSlot slot = new ReservationSlot();
+                slot.setReservation(reservation);
+                slot.setTableId(restaurantTable.getId());
+                slot.setSlotStart(slotStart);
+                slots.add(slot);
             }
+            index.occupy(restaurantTable.getId(), minute);
+            results[i] = true;
         }
 
+        if (!reservationSlotRepository.occupyAll(slots)) {
+            logger.warn("Batch reservation failed. Slots were reserved concurrently.");
+            transactionStatus.setRollbackOnly();
+
+            return null;
+        }
+
+        availabilityCache.invalidate(restaurantId);
+
+        return results;
+    }
+
+    private boolean createReservation(TransactionStatus transactionStatus,
+                                      long restaurantId,
+                                      LocalDateTime dateTime,
+                                      int numberOfGuests,
+                                      User client,
+                                      Long heldTableId) {
+        RestaurantTable restaurantTable = findFreeTable(restaurantId, dateTime, numberOfGuests, null, client, heldTableId);
+
         if (restaurantTable == null) {
             logger.warn("Reservation failed. No tables available.");
 
@@ -222,107 +711,404 @@ public class ReservationServiceImpl implements ReservationService {
                 numberOfGuests,
                 client);
 
-        reservationRepository.reserve(restaurantTable, client, status, dateTime, numberOfGuests);
+        Reservation reservation = reservationRepository.reserve(restaurantTable, client,
+                Reservation.Status.PENDING, dateTime, numberOfGuests);
+        if (!occupySlots(reservation)) {
+            logger.warn("Reservation failed. Table with id = {} was reserved concurrently.", restaurantTable.getId());
+            transactionStatus.setRollbackOnly();
+
+            return false;
+        }
+
+        availabilityCache.invalidate(restaurantId);
 
         return true;
     }
 
-    /**
-     * {@inheritDoc}
-     * <p>
-     * Sets a reservation status to {@link Reservation.Status#PENDING}
-     */
-    @Transactional
-    @Override
-    public boolean updateReservation(Reservation reservation) {
-        Reservation.Status status = Reservation.Status.PENDING;
-        reservation.setStatus(status);
-
-        RestaurantTable restaurantTable = null;
-        for (Map.Entry<RestaurantTable, List<LocalDateTime>> entry : getAvailableTablesMap(reservation.getTable().getRestaurant().getId(),
-                reservation.getGuestsNumber()).entrySet()) {
-            if (entry.getValue().contains(reservation.getDayTime())) {
-                restaurantTable = entry.getKey();
-            }
+    private boolean moveReservation(TransactionStatus transactionStatus,
+                                    long id,
+                                    LocalDateTime dateTime,
+                                    int numberOfGuests) {
+        Reservation reservation = this.getReservation(id);
+        Reservation.Status status = reservation.getEffectiveStatus();
+        if (status == Reservation.Status.CANCELED
+                || status == Reservation.Status.FINISHED) {
+            logger.warn("Reservation update failed. Reservation is {}.", status);
+
+            return false;
         }
 
+        RestaurantTable restaurantTable = findFreeTable(reservation.getTable().getRestaurant().getId(),
+                dateTime,
+                numberOfGuests,
+                reservation,
+                null,
+                reservation.getTable().getId());
+
         if (restaurantTable == null) {
             logger.warn("Reservation update failed. No tables available.");
 
             return false;
         }
 
+        reservation.setStatus(Reservation.Status.PENDING);
+        reservation.setDayTime(dateTime);
+        reservation.setGuestsNumber(numberOfGuests);
+        reservation.setTable(restaurantTable);
+
         logger.info("Updating reservation = {}", reservation);
 
         reservationRepository.update(reservation);
+        reservationSlotRepository.release(reservation.getId());
+        if (!occupySlots(reservation)) {
+            logger.warn("Reservation update failed. Table with id = {} was reserved concurrently.", restaurantTable.getId());
+            transactionStatus.setRollbackOnly();
+
+            return false;
+        }
+
+        availabilityCache.invalidate(restaurantTable.getRestaurant().getId());
 
         return true;
     }
 
-    @Transactional
-    @Override
-    public void cancelReservation(long id) {
-        logger.info("Canceling reservation with id = {}", id);
+    private boolean executeWithRetry(String operation,
+                                     TransactionCallback<Boolean> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(action));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxUpdateAttempts) {
+                    logger.warn("{} failed after {} attempts due to concurrent updates", operation, attempt);
 
-        reservationRepository.cancelReservation(id);
+                    return false;
+                }
+
+                logger.warn("{} conflicted with a concurrent update. Retrying, attempt {} of {}",
+                        operation,
+                        attempt + 1,
+                        maxUpdateAttempts);
+            }
+        }
     }
 
-    /**
-     * {@inheritDoc}
-     * <p>
-     * Sets a reservation status to {@link Reservation.Status#RESERVED}
-     * and assigns a {@link User} (manager).
-     */
-    @Transactional
-    @Override
-    public void submitReservation(long id,
-                                  User manager) {
-        Reservation reservation = this.getReservation(id);
-        reservation.setStatus(Reservation.Status.RESERVED);
-        reservation.setManager(manager);
+    private void invalidateAvailability(Reservation reservation) {
+        if (reservation.getTable() != null) {
+            availabilityCache.invalidate(reservation.getTable().getRestaurant().getId());
+        }
+    }
 
-        logger.info("Submitting reservation with id = {}", id);
+    private RestaurantTable findFreeTable(long restaurantId,
+                                          LocalDateTime dateTime,
+                                          int numberOfGuests,
+                                          Reservation updatedReservation,
+                                          User client,
+                                          Long preferredTableId) {
+        if (!isBookable(restaurantId, dateTime)) return null;
 
-        reservationRepository.update(reservation);
+        long minute = SlotOccupancyIndex.toEpochMinute(dateTime);
+        List<LocalDateTime> slotStarts = SlotOccupancyIndex.getSlotStarts(dateTime);
+        List<RestaurantTable> tables = new ArrayList<>(restaurantTableRepository.getFreeTables(restaurantId,
+                numberOfGuests,
+                slotStarts.get(0),
+                slotStarts.get(slotStarts.size() - 1),
+                updatedReservation == null ? null : updatedReservation.getId()));
+        tables.removeIf(table -> slotHoldManager.isHeld(restaurantId, table.getId(), minute, client));
+
+        return allocateTable(tables, numberOfGuests, preferredTableId);
     }
 
-    private static Map<LocalTime, Integer> generateTimes(LocalTime start,
-                                                         LocalTime end) {
-        Map<LocalTime, Integer> times = new HashMap<>();
-        LocalTime time = start;
+    private RestaurantTable allocateTable(List<RestaurantTable> tables,
+                                          int numberOfGuests,
+                                          Long preferredTableId) {
+        if (tables.isEmpty()) return null;
+
+        if (preferredTableId != null) {
+            for (RestaurantTable table : tables) {
+                if (table.getId().equals(preferredTableId)) {
+                    return table;
+                }
+            }
+        }
 
-        do {
-            if (time.isBefore(LocalTime.NOON.minusMinutes(1))
-                    && time.isAfter(LocalTime.MIDNIGHT)
-                    || time.equals(LocalTime.MIDNIGHT)) {
-                times.put(time, 2);
+        Restaurant.AllocationStrategy strategy = tables.get(0).getRestaurant().getAllocationStrategy();
+
+        return tableAllocators.get(strategy == null ? Restaurant.AllocationStrategy.BEST_FIT : strategy)
+                .allocate(tables, numberOfGuests)
+                .orElse(null);
+    }
+
+    private boolean occupySlots(Reservation reservation) {
+        return reservationSlotRepository.occupy(reservation.getId(),
+                reservation.getTable().getId(),
+                SlotOccupancyIndex.getSlotStarts(reservation.getDayTime()));
+    }
+
+    private boolean isBookable(long restaurantId,
+                               LocalDateTime dateTime) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!dateTime.isAfter(now)) return false;
+
+        LocalDate lastDay = now.toLocalDate().plusDays(getReservationDays(restaurantId) - 1);
+        LocalDate day = dateTime.toLocalDate();
+        LocalDate previousDay = day.minusDays(1);
+        long minute = SlotOccupancyIndex.toEpochMinute(dateTime);
+
+        return !day.isAfter(lastDay) && isWorkingDaySlot(restaurantId, day, minute)
+                || !previousDay.isAfter(lastDay) && isWorkingDaySlot(restaurantId, previousDay, minute);
+    }
+
+    private boolean isWorkingDaySlot(long restaurantId,
+                                     LocalDate day,
+                                     long epochMinute) {
+        long minutes = epochMinute - day.toEpochDay() * MINUTES_PER_DAY;
+
+        return minutes >= 0 && minutes < 2 * MINUTES_PER_DAY
+                && Arrays.binarySearch(slotTemplateCache.getSlots(restaurantId, day.getDayOfWeek()), (int) minutes) >= 0;
+    }
+
+    private int getReservationDays(long restaurantId) {
+        return getReservationDays(slotTemplateCache.getReservationDays(restaurantId));
+    }
+
+    private static int getReservationDays(Restaurant restaurant) {
+        return getReservationDays(restaurant.getReservationDays());
+    }
+
+    private static int getReservationDays(Integer reservationDays) {
+        if (reservationDays == null) return AVAILABLE_DAYS_FOR_RESERVATION;
+
+        return Math.max(1, Math.min(reservationDays, MAX_AVAILABLE_DAYS_FOR_RESERVATION));
+    }
+
+    private static List<AvailableTimeDTO> collectAvailableTimes(List<DayAvailability> days,
+                                                                List<SlotHoldManager.SlotHold> holds,
+                                                                long nowMinute,
+                                                                long fromMinute,
+                                                                long toMinute) {
+        List<AvailableTimeDTO> availableTimes = new ArrayList<>();
+        long lastMinute = Long.MIN_VALUE;
+        boolean sorted = true;
+        for (DayAvailability day : days) {
+            int[] heldTables = getHeldTables(day, holds);
+            for (int slot = 0; slot < day.getSlotsNumber(); slot++) {
+                int freeTablesNumber = day.getFreeTablesNumber(slot);
+                if (freeTablesNumber == 0) continue;
+
+                long minute = day.getEpochMinute(slot);
+                if (minute <= nowMinute || minute < fromMinute || minute > toMinute) continue;
+
+                freeTablesNumber -= getHeldTablesNumber(day, slot, heldTables, holds);
+                if (freeTablesNumber == 0) continue;
+
+                if (minute <= lastMinute) {
+                    sorted = false;
+                }
+                lastMinute = minute;
+                availableTimes.add(new AvailableTimeDTO(minute, freeTablesNumber));
+            }
+        }
+
+        return sorted ? availableTimes : sortDistinct(availableTimes);
+    }
+
+    private static int[] getHeldTables(DayAvailability day,
+                                       List<SlotHoldManager.SlotHold> holds) {
+        int[] heldTables = new int[holds.size()];
+        List<RestaurantTable> tables = day.getTables();
+        for (int i = 0; i < heldTables.length; i++) {
+            heldTables[i] = -1;
+            for (int table = 0; table < tables.size(); table++) {
+                if (tables.get(table).getId() == holds.get(i).tableId()) {
+                    heldTables[i] = table;
+                    break;
+                }
+            }
+        }
+
+        return heldTables;
+    }
+
+    private static int getHeldTablesNumber(DayAvailability day,
+                                           int slot,
+                                           int[] heldTables,
+                                           List<SlotHoldManager.SlotHold> holds) {
+        long minute = day.getEpochMinute(slot);
+        int heldTablesNumber = 0;
+        BitSet counted = null;
+        for (int i = 0; i < heldTables.length; i++) {
+            int table = heldTables[i];
+            if (table < 0
+                    || Math.abs(holds.get(i).startMinute() - minute) > SlotOccupancyIndex.RESERVATION_MINUTES
+                    || !day.isFree(table, slot)) {
+                continue;
+            }
+
+            if (counted == null) {
+                counted = new BitSet(day.getTables().size());
+            }
+            if (!counted.get(table)) {
+                counted.set(table);
+                heldTablesNumber++;
+            }
+        }
+
+        return heldTablesNumber;
+    }
+
+    private static List<AvailableTimeDTO> sortDistinct(List<AvailableTimeDTO> availableTimes) {
+        availableTimes.sort(Comparator.comparingLong(AvailableTimeDTO::getEpochMinute));
+
+        List<AvailableTimeDTO> distinctTimes = new ArrayList<>(availableTimes.size());
+        for (AvailableTimeDTO availableTime : availableTimes) {
+            AvailableTimeDTO last = distinctTimes.isEmpty() ? null : distinctTimes.get(distinctTimes.size() - 1);
+            if (last != null && last.getEpochMinute() == availableTime.getEpochMinute()) {
+                last.setFreeTablesNumber(Math.max(last.getFreeTablesNumber(), availableTime.getFreeTablesNumber()));
             } else {
-                times.put(time, 1);
+                distinctTimes.add(availableTime);
+            }
+        }
+
+        return distinctTimes;
+    }
+
+    private List<DayAvailability> getDayAvailabilities(long restaurantId,
+                                                       int numberOfGuests,
+                                                       LocalDate firstDay,
+                                                       int daysNumber) {
+        DayAvailability[] days = new DayAvailability[daysNumber];
+        List<Integer> missingDays = new ArrayList<>();
+        for (int i = 0; i < daysNumber; i++) {
+            days[i] = availabilityCache.get(restaurantId, numberOfGuests, firstDay.plusDays(i));
+            if (days[i] == null) {
+                missingDays.add(i);
             }
+        }
+
+        if (!missingDays.isEmpty()) {
+            long generation = availabilityCache.getGeneration(restaurantId);
+            List<RestaurantTable> tables = restaurantTableRepository.getBySeatsNumber(restaurantId, numberOfGuests);
+
+            LocalDate from = firstDay.plusDays(missingDays.get(0));
+            int indexedDays = missingDays.get(missingDays.size() - 1) - missingDays.get(0) + 3;
+            SlotOccupancyIndex index = buildOccupancyIndex(tables, from, indexedDays);
 
-            time = time.plusMinutes(MINUTES_INTERVAL);
-        } while (!time.equals(end.plusMinutes(MINUTES_INTERVAL)));
+            for (int i : missingDays) {
+                days[i] = computeDayAvailability(restaurantId, numberOfGuests, firstDay.plusDays(i), tables, index);
+                availabilityCache.put(generation, days[i]);
+            }
+        }
 
-        return times;
+        return Arrays.asList(days);
     }
 
-    private static LocalDate getNearestDate(DayOfWeek dayOfWeek) {
-        DayOfWeek day = LocalDate.now().getDayOfWeek();
-        LocalDate date = LocalDate.now();
+    private DayAvailability computeDayAvailability(long restaurantId,
+                                                   int numberOfGuests,
+                                                   LocalDate day,
+                                                   List<RestaurantTable> tables,
+                                                   SlotOccupancyIndex index) {
+        int[] slots = slotTemplateCache.getSlots(restaurantId, day.getDayOfWeek());
+        long midnight = SlotOccupancyIndex.toEpochMinute(day.atStartOfDay());
 
-        while (day != dayOfWeek) {
-            day = day.plus(1);
-            date = date.plusDays(1);
+        BitSet freeSlots = new BitSet(tables.size() * slots.length);
+        for (int table = 0; table < tables.size(); table++) {
+            long tableId = tables.get(table).getId();
+            int slot = 0;
+            while (slot < slots.length) {
+                long start = midnight + slots[slot];
+                long freeStart = index.nextFreeStart(tableId, start);
+                if (freeStart == start) {
+                    freeSlots.set(table * slots.length + slot);
+                    slot++;
+                } else if (freeStart - midnight > slots[slots.length - 1]) {
+                    break;
+                } else {
+                    int next = Arrays.binarySearch(slots, slot + 1, slots.length, (int) (freeStart - midnight));
+                    slot = next >= 0 ? next : -next - 1;
+                }
+            }
         }
 
-        return date;
+        return new DayAvailability(restaurantId, numberOfGuests, day, tables, slots, freeSlots);
     }
 
-    private static void removeDateTimes(List<LocalDateTime> times,
-                                        LocalDateTime start,
-                                        LocalDateTime end) {
-        times.removeIf(time -> time.isBefore(end.plusMinutes(1))
-                && time.isAfter(start.minusMinutes(1))
-                || time.isBefore(LocalDateTime.now()));
+    private SlotOccupancyIndex buildOccupancyIndex(List<RestaurantTable> tables,
+                                                   LocalDate firstDay,
+                                                   int daysNumber) {
+        List<Long> tableIds = new ArrayList<>(tables.size());
+        long[] indexedIds = new long[tables.size()];
+        for (int i = 0; i < indexedIds.length; i++) {
+            indexedIds[i] = tables.get(i).getId();
+            tableIds.add(indexedIds[i]);
+        }
+
+        LocalDateTime from = firstDay.atStartOfDay();
+        List<ReservationSlot> slots = reservationSlotRepository.getByTablesAndPeriod(tableIds,
+                from,
+                from.plusDays(daysNumber).plusHours(RESERVATION_DURATION_OF_HOURS));
+
+        SlotOccupancyIndex index = new SlotOccupancyIndex(indexedIds);
+        for (ReservationSlot slot : slots) {
+            long minute = SlotOccupancyIndex.toEpochMinute(slot.getSlotStart());
+            index.occupy(slot.getTableId(), minute, minute);
+        }
+
+        return index;
+    }
+
+    private ReservationPageDTO toPage(List<ReservationDTO> reservations,
+                                      PageRequest request,
+                                      Function<ReservationDTO, String> sortKey) {
+        List<ReservationDTO> page = new ArrayList<>(reservations);
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page.remove(pageSize);
+        }
+        if (request.backward()) {
+            Collections.reverse(page);
+        }
+
+        boolean hasPrevious = request.backward() ? hasMore : request.cursor() != null;
+        boolean hasNext = request.backward() || hasMore;
+        if (page.isEmpty()) return new ReservationPageDTO(page, null, null);
+
+        ReservationDTO first = page.get(0);
+        ReservationDTO last = page.get(page.size() - 1);
+
+        return new ReservationPageDTO(page,
+                hasPrevious ? new ReservationCursor(first, sortKey == null ? null : sortKey.apply(first)).encode() : null,
+                hasNext ? new ReservationCursor(last, sortKey == null ? null : sortKey.apply(last)).encode() : null);
+    }
+
+    /**
+     * A requested page of a reservation list.
+     *
+     * @param cursor   the position the page starts at, {@code null} for the first page
+     * @param backward whether the page precedes the cursor
+     */
+    private record PageRequest(ReservationCursor cursor,
+                               boolean backward) {
+
+        /**
+         * Creates a page request from the encoded cursors, ignoring a cursor whose sort key
+         * does not belong to the list, so a tampered cursor serves the first page.
+         *
+         * @param after    the encoded cursor of the page to follow, may be {@code null}
+         * @param before   the encoded cursor of the page to precede, may be {@code null}
+         * @param validKey the check of the sort key, which is {@code null} if the list has no sort key
+         * @return the page request
+         */
+        private static PageRequest of(String after,
+                                      String before,
+                                      Predicate<String> validKey) {
+            Optional<ReservationCursor> afterCursor = ReservationCursor.decode(after)
+                    .filter(cursor -> validKey.test(cursor.getKey()));
+            if (afterCursor.isPresent()) return new PageRequest(afterCursor.get(), false);
+
+            return ReservationCursor.decode(before)
+                    .filter(cursor -> validKey.test(cursor.getKey()))
+                    .map(cursor -> new PageRequest(cursor, true))
+                    .orElse(new PageRequest(null, false));
+        }
     }
 }
@@ -0,0 +1,67 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
+import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import com.maksymchernenko.reserveit.repository.ReservationSlotRepository;
+import com.maksymchernenko.reserveit.service.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Occupies {@link ReservationSlot} objects of active reservations created before reservation slots existed.
+ * <p>
+ * Runs once on application startup. A reservation overlapping slots which are already taken
+ * by another reservation is skipped as a unit, so it never occupies only some of its slots.
+ */
+@Component
+public class ReservationSlotBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSlotBackfill.class);
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository reservationSlotRepository;
+
+    /**
+     * Instantiates a new Reservation slot backfill.
+     *
+     * @param reservationRepository     the {@link ReservationRepository}
+     * @param reservationSlotRepository the {@link ReservationSlotRepository}
+     */
+    @Autowired
+    public ReservationSlotBackfill(ReservationRepository reservationRepository,
+                                   ReservationSlotRepository reservationSlotRepository) {
+        this.reservationRepository = reservationRepository;
+        this.reservationSlotRepository = reservationSlotRepository;
+    }
+
+    /**
+     * Occupies the slots of active reservations which have not passed yet and have no slots.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Reservation> reservations = reservationRepository.getActiveWithoutSlots(
+                LocalDateTime.now().minusHours(ReservationService.RESERVATION_DURATION_OF_HOURS));
+
+        logger.info("Backfilling slots of {} reservations", reservations.size());
+
+        for (Reservation reservation : reservations) {
+            if (!reservationSlotRepository.occupy(reservation.getId(),
+                    reservation.getTable().getId(),
+                    SlotOccupancyIndex.getSlotStarts(reservation.getDayTime()))) {
+                logger.warn("Reservation with id = {} overlaps another reservation, its slots are not occupied",
+                        reservation.getId());
+                reservationSlotRepository.release(reservation.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
+import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import com.maksymchernenko.reserveit.repository.ReservationSlotRepository;
+import com.maksymchernenko.reserveit.service.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Finishes passed reservations in the background.
+ * <p>
+ * Runs periodically and sets the {@link Reservation.Status} of reserved reservations which ended
+ * to {@link Reservation.Status#FINISHED} in a single update, so reading reservations does not write.
+ * The status is not updated if the finished status is derived at read time by {@link Reservation#getEffectiveStatus()}.
+ * <p>
+ * Releases the {@link ReservationSlot} objects of reservations which ended in the same run,
+ * so the slot table only holds current and future slots.
+ */
+@Component
+public class ReservationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSweeper.class);
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository reservationSlotRepository;
+    private final boolean derivedFinished;
+
+    /**
+     * Instantiates a new Reservation sweeper.
+     *
+     * @param reservationRepository     the {@link ReservationRepository}
+     * @param reservationSlotRepository the {@link ReservationSlotRepository}
+     * @param derivedFinished           whether the finished status is derived at read time
+     */
+    @Autowired
+    public ReservationSweeper(ReservationRepository reservationRepository,
+                              ReservationSlotRepository reservationSlotRepository,
+                              @Value("${reserveit.reservation.status.derived-finished:false}") boolean derivedFinished) {
+        this.reservationRepository = reservationRepository;
+        this.reservationSlotRepository = reservationSlotRepository;
+        this.derivedFinished = derivedFinished;
+    }
+
+    /**
+     * Finishes reserved reservations which ended before now and releases their slots.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${reserveit.reservation.sweeper.fixed-delay-millis:60000}")
+    public void finishPassedReservations() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ReservationService.RESERVATION_DURATION_OF_HOURS);
+
+        if (!derivedFinished) {
+            int finished = reservationRepository.finishPassed(cutoff);
+            if (finished > 0) {
+                logger.info("Finished {} passed reservations", finished);
+            }
+        }
+
+        int released = reservationSlotRepository.releasePassed(cutoff);
+        if (released > 0) {
+            logger.info("Released {} slots of passed reservations", released);
+        }
+    }
+}
@@ -25,15 +25,23 @@ public class RestaurantServiceImpl implements RestaurantService {
     private static final Logger logger = LoggerFactory.getLogger(RestaurantServiceImpl.class);
 
     private final RestaurantRepository restaurantRepository;
+    private final SlotTemplateCache slotTemplateCache;
+    private final AvailabilityCache availabilityCache;
 
     /**
      * Instantiates a new {@link RestaurantService}.
      *
      * @param restaurantRepository the {@link RestaurantRepository}
+     * @param slotTemplateCache    the {@link SlotTemplateCache}
+     * @param availabilityCache    the {@link AvailabilityCache}
      */
     @Autowired
-    public RestaurantServiceImpl(RestaurantRepository restaurantRepository) {
+    public RestaurantServiceImpl(RestaurantRepository restaurantRepository,
+                                 SlotTemplateCache slotTemplateCache,
+                                 AvailabilityCache availabilityCache) {
         this.restaurantRepository = restaurantRepository;
+        this.slotTemplateCache = slotTemplateCache;
+        this.availabilityCache = availabilityCache;
     }
 
     public List<Restaurant> getAllRestaurants() {
@@ -86,19 +94,32 @@ public class RestaurantServiceImpl implements RestaurantService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Evicts the restaurant slot templates, which keep its reservation days.
+     */
     @Transactional
     @Override
     public void updateRestaurant(Restaurant restaurant) {
         logger.info("Updating restaurant {}", restaurant);
 
         restaurantRepository.update(restaurant);
+        slotTemplateCache.evict(restaurant.getId());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Evicts the restaurant slot templates and cached availability.
+     */
     @Transactional
     @Override
     public void deleteRestaurant(long id) {
         logger.info("Deleting restaurant with id = {}", id);
 
         restaurantRepository.remove(id);
+        slotTemplateCache.evict(id);
+        availabilityCache.invalidate(id);
     }
 }
@@ -3,16 +3,20 @@ package com.maksymchernenko.reserveit.service.impl;
 import com.maksymchernenko.reserveit.model.Reservation;
 import com.maksymchernenko.reserveit.model.RestaurantTable;
 import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import com.maksymchernenko.reserveit.repository.ReservationSlotRepository;
 import com.maksymchernenko.reserveit.repository.RestaurantTableRepository;
 import com.maksymchernenko.reserveit.service.RestaurantTableService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implements {@link RestaurantTableService} interface.
@@ -26,24 +30,42 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
 
     private final RestaurantTableRepository restaurantTableRepository;
     private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository reservationSlotRepository;
+    private final AvailabilityCache availabilityCache;
+    private final StripedLockManager stripedLockManager;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Instantiates a new {@link RestaurantTableService}.
      *
      * @param restaurantTableRepository the {@link RestaurantTableRepository}
      * @param reservationRepository     the {@link ReservationRepository}
+     * @param reservationSlotRepository the {@link ReservationSlotRepository}
+     * @param availabilityCache         the {@link AvailabilityCache}
+     * @param stripedLockManager        the {@link StripedLockManager}
+     * @param transactionManager        the transaction manager used for deleting tables
      */
     @Autowired
     public RestaurantTableServiceImpl(RestaurantTableRepository restaurantTableRepository,
-                                      ReservationRepository reservationRepository) {
+                                      ReservationRepository reservationRepository,
+                                      ReservationSlotRepository reservationSlotRepository,
+                                      AvailabilityCache availabilityCache,
+                                      StripedLockManager stripedLockManager,
+                                      PlatformTransactionManager transactionManager) {
         this.restaurantTableRepository = restaurantTableRepository;
         this.reservationRepository = reservationRepository;
+        this.reservationSlotRepository = reservationSlotRepository;
+        this.availabilityCache = availabilityCache;
+        this.stripedLockManager = stripedLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * Searches for an available table number every time a new table is created.
+     * <p>
+     * Invalidates the cached availability of the restaurant.
      */
     @Transactional
     @Override
@@ -55,6 +77,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
         logger.info("Creating table = {}", restaurantTable);
 
         restaurantTableRepository.save(restaurantTable);
+        availabilityCache.invalidate(restaurantTable.getRestaurant().getId());
     }
 
     /**
@@ -77,25 +100,39 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
      * <p>
      * Deletes tables if they are not in the process of reserving.
      * <p>
-     * Deletes the table in reservations.
+     * Deletes the table in reservations and releases its reservation slots.
+     * <p>
+     * Invalidates the cached availability of the restaurant.
+     * <p>
+     * Runs in a new transaction holding the booking lock of the restaurant,
+     * so the table can not be reserved while it is deleted.
      */
-    @Transactional
     @Override
     public boolean delete(long id) {
-        List<Reservation> reservations = reservationRepository.getByTableId(id);
+        Optional<RestaurantTable> table = restaurantTableRepository.get(id);
+        if (table.isEmpty()) return false;
+
+        long restaurantId = table.get().getRestaurant().getId();
+
+        return stripedLockManager.executeLocked(restaurantId, () -> Boolean.TRUE.equals(transactionTemplate.execute(transactionStatus -> {
+            List<Reservation> reservations = reservationRepository.getByTableId(id);
 
-        for (Reservation reservation : reservations) {
-            if (reservation.getStatus() == Reservation.Status.PENDING
-                    || reservation.getStatus() == Reservation.Status.RESERVED) {
-                return false;
+            for (Reservation reservation : reservations) {
+                Reservation.Status status = reservation.getEffectiveStatus();
+                if (status == Reservation.Status.PENDING
+                        || status == Reservation.Status.RESERVED) {
+                    return false;
+                }
             }
-        }
 
-        logger.info("Deleting table with id = {}", id);
+            logger.info("Deleting table with id = {}", id);
 
-        reservationRepository.deleteTables(id);
-        restaurantTableRepository.delete(id);
+            reservationRepository.deleteTables(id);
+            reservationSlotRepository.releaseTable(id);
+            restaurantTableRepository.delete(id);
+            availabilityCache.invalidate(restaurantId);
 
-        return true;
+            return true;
+        })));
     }
 }
@@ -0,0 +1,222 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import com.maksymchernenko.reserveit.model.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory short-lived holds of {@link RestaurantTable} objects at reservation times chosen by clients.
+ * <p>
+ * A hold keeps the table for its client between choosing a time and confirming the reservation
+ * and counts as occupied in availability of other clients. Holds expire after a time to live
+ * by a {@link HashedWheelTimer}, so expiry costs constant time however many holds are active.
+ * A client has at most one hold, placing a new one releases the previous.
+ * <p>
+ * The time to live is set by {@code reserveit.reservation.hold.time-to-live-seconds}, 90 seconds by default.
+ * It should cover filling in the reservation form, since an abandoned hold keeps the table
+ * out of the availability of other clients until it expires.
+ * <p>
+ * Holds are not part of the cached availability, they are subtracted from it when available times
+ * are collected, so placing, releasing and expiring a hold does not invalidate {@link AvailabilityCache}.
+ */
+@Component
+public class SlotHoldManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldManager.class);
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final long timeToLiveSeconds;
+    private final HashedWheelTimer timer;
+
+    private final Map<String, Entry> holds = new HashMap<>();
+    private final Map<Long, String> clientHolds = new HashMap<>();
+    private final Map<Long, Set<SlotHold>> restaurantHolds = new HashMap<>();
+
+    /**
+     * Instantiates a new Slot hold manager.
+     *
+     * @param timeToLiveSeconds the hold time to live in seconds
+     * @param tickMillis        the expiry timer tick in milliseconds
+     */
+    @Autowired
+    public SlotHoldManager(@Value("${reserveit.reservation.hold.time-to-live-seconds:90}") long timeToLiveSeconds,
+                           @Value("${reserveit.reservation.hold.tick-millis:1000}") long tickMillis) {
+        this.timeToLiveSeconds = Math.max(1, timeToLiveSeconds);
+        this.timer = new HashedWheelTimer(tickMillis, WHEEL_SIZE, "slot-hold-timer");
+    }
+
+    /**
+     * Places a hold of a table, releasing the previous hold of the client.
+     *
+     * @param restaurantId the restaurant id
+     * @param tableId      the table id
+     * @param startMinute  the reservation start as minutes of the epoch
+     * @param client       the client
+     * @return the hold
+     */
+    public SlotHold place(long restaurantId,
+                          long tableId,
+                          long startMinute,
+                          User client) {
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(),
+                restaurantId,
+                tableId,
+                startMinute,
+                client.getId(),
+                LocalDateTime.now().plusSeconds(timeToLiveSeconds));
+
+        synchronized (this) {
+            String previousId = clientHolds.get(client.getId());
+            if (previousId != null) {
+                remove(previousId);
+            }
+
+            holds.put(hold.id(), new Entry(hold, timer.schedule(() -> expire(hold.id()),
+                    TimeUnit.SECONDS.toMillis(timeToLiveSeconds))));
+            clientHolds.put(client.getId(), hold.id());
+            restaurantHolds.computeIfAbsent(restaurantId, id -> new HashSet<>()).add(hold);
+        }
+
+        logger.info("Placed hold with id = {} of table id = {} for client id = {}", hold.id(), tableId, client.getId());
+
+        return hold;
+    }
+
+    /**
+     * Gets an active hold of a client.
+     *
+     * @param id     the hold id
+     * @param client the client
+     * @return the hold, empty if it does not exist, expired or belongs to another client
+     */
+    public synchronized Optional<SlotHold> get(String id,
+                                               User client) {
+        Entry entry = id == null ? null : holds.get(id);
+        if (entry == null || !entry.hold().clientId().equals(client.getId())) return Optional.empty();
+
+        return Optional.of(entry.hold());
+    }
+
+    /**
+     * Gets the active holds of a restaurant.
+     *
+     * @param restaurantId the restaurant id
+     * @return the list of holds
+     */
+    public synchronized List<SlotHold> getHolds(long restaurantId) {
+        Set<SlotHold> restaurantSet = restaurantHolds.get(restaurantId);
+
+        return restaurantSet == null ? List.of() : List.copyOf(restaurantSet);
+    }
+
+    /**
+     * Checks whether a table is held at a time overlapping a reservation starting at a given minute.
+     *
+     * @param restaurantId the restaurant id
+     * @param tableId      the table id
+     * @param startMinute  the reservation start as minutes of the epoch
+     * @param client       the client whose holds are ignored, may be {@code null}
+     * @return {@code true} if a hold of another client overlaps, {@code false} otherwise
+     */
+    public synchronized boolean isHeld(long restaurantId,
+                                       long tableId,
+                                       long startMinute,
+                                       User client) {
+        Set<SlotHold> restaurantSet = restaurantHolds.get(restaurantId);
+        if (restaurantSet == null) return false;
+
+        for (SlotHold hold : restaurantSet) {
+            if (hold.tableId() == tableId
+                    && Math.abs(hold.startMinute() - startMinute) <= SlotOccupancyIndex.RESERVATION_MINUTES
+                    && (client == null || !hold.clientId().equals(client.getId()))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Releases a hold before it expires.
+     *
+     * @param id the hold id
+     */
+    public void release(String id) {
+        SlotHold hold;
+        synchronized (this) {
+            hold = remove(id);
+        }
+
+        if (hold != null) {
+            logger.info("Released hold with id = {}", id);
+        }
+    }
+
+    /**
+     * Stops the expiry timer.
+     */
+    @PreDestroy
+    public void stop() {
+        timer.stop();
+    }
+
+    private void expire(String id) {
+        SlotHold hold;
+        synchronized (this) {
+            hold = remove(id);
+        }
+
+        if (hold != null) {
+            logger.info("Hold with id = {} expired", id);
+        }
+    }
+
+    private SlotHold remove(String id) {
+        Entry entry = holds.remove(id);
+        if (entry == null) return null;
+
+        SlotHold hold = entry.hold();
+        entry.timeout().cancel();
+        clientHolds.remove(hold.clientId(), id);
+
+        Set<SlotHold> restaurantSet = restaurantHolds.get(hold.restaurantId());
+        restaurantSet.remove(hold);
+        if (restaurantSet.isEmpty()) {
+            restaurantHolds.remove(hold.restaurantId());
+        }
+
+        return hold;
+    }
+
+    /**
+     * A hold of a table.
+     *
+     * @param id           the hold id
+     * @param restaurantId the restaurant id
+     * @param tableId      the table id
+     * @param startMinute  the reservation start as minutes of the epoch
+     * @param clientId     the client id
+     * @param expiresAt    the expiry date and time
+     */
+    public record SlotHold(String id,
+                           long restaurantId,
+                           long tableId,
+                           long startMinute,
+                           Long clientId,
+                           LocalDateTime expiresAt) {
+    }
+
+    private record Entry(SlotHold hold,
+                         HashedWheelTimer.Timeout timeout) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import com.maksymchernenko.reserveit.service.ReservationService;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory occupancy index of {@link RestaurantTable} objects.
+ * <p>
+ * Stores the occupied intervals of every table as {@link SortedIntervals} keyed by the primitive table id.
+ * Times are minutes of the epoch, so reservations crossing midnight are handled like any other.
+ * <p>
+ * A reservation occupies its start to its end inclusively. Intervals are added with
+ * {@link #occupy(long, long, long)} and removed with {@link #release(long, long, long)},
+ * the intervals of a table are sorted on the first query after it changed.
+ * <p>
+ * Is not thread-safe.
+ */
+public class SlotOccupancyIndex {
+
+    /**
+     * Defines the number of minutes between a reservation start and end.
+     */
+    public static final int RESERVATION_MINUTES = ReservationService.RESERVATION_DURATION_OF_HOURS * 60;
+    /**
+     * Defines the number of slots covered by a reservation after its start slot.
+     */
+    public static final int RESERVATION_SLOTS = RESERVATION_MINUTES / ReservationService.MINUTES_INTERVAL;
+
+    private static final SortedIntervals NO_INTERVALS = new SortedIntervals(new long[0], new long[0]);
+
+    private final long[] tableIds;
+    private final long[][] starts;
+    private final long[][] ends;
+    private final int[] sizes;
+    private final SortedIntervals[] intervals;
+
+    /**
+     * Instantiates a new Slot occupancy index.
+     *
+     * @param tableIds the ids of the indexed tables
+     */
+    public SlotOccupancyIndex(long[] tableIds) {
+        this.tableIds = tableIds.clone();
+        Arrays.sort(this.tableIds);
+        this.starts = new long[this.tableIds.length][];
+        this.ends = new long[this.tableIds.length][];
+        this.sizes = new int[this.tableIds.length];
+        this.intervals = new SortedIntervals[this.tableIds.length];
+    }
+
+    /**
+     * Converts a date and time to minutes of the epoch.
+     *
+     * @param dateTime the date and time
+     * @return the minutes of the epoch
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * Adds a reservation starting at a given date and time.
+     * <p>
+     * Tables that are not indexed are ignored.
+     *
+     * @param tableId the table id
+     * @param start   the reservation start
+     */
+    public void occupy(long tableId,
+                       LocalDateTime start) {
+        occupy(tableId, toEpochMinute(start));
+    }
+
+    /**
+     * Adds a reservation starting at a given minute.
+     * <p>
+     * Tables that are not indexed are ignored.
+     *
+     * @param tableId     the table id
+     * @param startMinute the reservation start as minutes of the epoch
+     */
+    public void occupy(long tableId,
+                       long startMinute) {
+        occupy(tableId, startMinute, startMinute + RESERVATION_MINUTES);
+    }
+
+    /**
+     * Adds an occupied interval.
+     * <p>
+     * Tables that are not indexed are ignored.
+     *
+     * @param tableId    the table id
+     * @param fromMinute the interval start as minutes of the epoch
+     * @param toMinute   the interval end as minutes of the epoch, inclusive
+     */
+    public void occupy(long tableId,
+                       long fromMinute,
+                       long toMinute) {
+        int table = Arrays.binarySearch(tableIds, tableId);
+        if (table < 0) return;
+
+        if (starts[table] == null) {
+            starts[table] = new long[4];
+            ends[table] = new long[4];
+        } else if (sizes[table] == starts[table].length) {
+            starts[table] = Arrays.copyOf(starts[table], sizes[table] * 2);
+            ends[table] = Arrays.copyOf(ends[table], sizes[table] * 2);
+        }
+        starts[table][sizes[table]] = fromMinute;
+        ends[table][sizes[table]++] = toMinute;
+        intervals[table] = null;
+    }
+
+    /**
+     * Removes a reservation starting at a given minute.
+     *
+     * @param tableId     the table id
+     * @param startMinute the reservation start as minutes of the epoch
+     * @return {@code true} if the reservation was indexed, {@code false} otherwise
+     */
+    public boolean release(long tableId,
+                           long startMinute) {
+        return release(tableId, startMinute, startMinute + RESERVATION_MINUTES);
+    }
+
+    /**
+     * Removes one occupied interval.
+     *
+     * @param tableId    the table id
+     * @param fromMinute the interval start as minutes of the epoch
+     * @param toMinute   the interval end as minutes of the epoch, inclusive
+     * @return {@code true} if the interval was indexed, {@code false} otherwise
+     */
+    public boolean release(long tableId,
+                           long fromMinute,
+                           long toMinute) {
+        int table = Arrays.binarySearch(tableIds, tableId);
+        if (table < 0) return false;
+
+        for (int i = 0; i < sizes[table]; i++) {
+            if (starts[table][i] == fromMinute && ends[table][i] == toMinute) {
+                int last = --sizes[table];
+                starts[table][i] = starts[table][last];
+                ends[table][i] = ends[table][last];
+                intervals[table] = null;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether a reservation starting at a given minute fits the table.
+     *
+     * @param tableId     the table id
+     * @param startMinute the reservation start as minutes of the epoch
+     * @return {@code true} if the table is indexed and no interval overlaps, {@code false} otherwise
+     */
+    public boolean isFree(long tableId,
+                          long startMinute) {
+        SortedIntervals tableIntervals = getIntervals(tableId);
+
+        return tableIntervals != null && !tableIntervals.overlaps(startMinute, startMinute + RESERVATION_MINUTES);
+    }
+
+    /**
+     * Finds the earliest minute not before a given one at which a reservation fits the table.
+     *
+     * @param tableId    the table id
+     * @param fromMinute the earliest start as minutes of the epoch
+     * @return the earliest free start as minutes of the epoch, {@link Long#MAX_VALUE} if the table is not indexed
+     */
+    public long nextFreeStart(long tableId,
+                              long fromMinute) {
+        SortedIntervals tableIntervals = getIntervals(tableId);
+
+        return tableIntervals == null ? Long.MAX_VALUE : tableIntervals.nextFree(fromMinute, RESERVATION_MINUTES);
+    }
+
+    /**
+     * Gets the start times of the slots occupied by a reservation starting at a given date and time.
+     * <p>
+     * The first slot is aligned down to {@link ReservationService#MINUTES_INTERVAL} minutes.
+     *
+     * @param start the reservation start
+     * @return the list of slot start times in ascending order
+     */
+    public static List<LocalDateTime> getSlotStarts(LocalDateTime start) {
+        LocalDateTime first = start.truncatedTo(ChronoUnit.HOURS)
+                .plusMinutes(start.getMinute() / ReservationService.MINUTES_INTERVAL * ReservationService.MINUTES_INTERVAL);
+
+        List<LocalDateTime> slotStarts = new ArrayList<>(RESERVATION_SLOTS + 1);
+        for (int slot = 0; slot <= RESERVATION_SLOTS; slot++) {
+            slotStarts.add(first.plusMinutes((long) slot * ReservationService.MINUTES_INTERVAL));
+        }
+
+        return slotStarts;
+    }
+
+    private SortedIntervals getIntervals(long tableId) {
+        int table = Arrays.binarySearch(tableIds, tableId);
+        if (table < 0) return null;
+
+        if (intervals[table] == null) {
+            intervals[table] = sizes[table] == 0
+                    ? NO_INTERVALS
+                    : new SortedIntervals(Arrays.copyOf(starts[table], sizes[table]),
+                    Arrays.copyOf(ends[table], sizes[table]));
+        }
+
+        return intervals[table];
+    }
+}
@@ -0,0 +1,171 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.WorkingTime;
+import com.maksymchernenko.reserveit.repository.RestaurantRepository;
+import com.maksymchernenko.reserveit.repository.WorkingTimeRepository;
+import com.maksymchernenko.reserveit.service.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of reservation slot templates per {@link Restaurant} and {@link DayOfWeek}
+ * and of the reservation period length per {@link Restaurant}.
+ * <p>
+ * A template is a sorted array of reservation start times of a working day, stored as minutes
+ * from the midnight the working day starts at. Times of an overnight {@link WorkingTime}
+ * that fall after midnight have offsets greater than or equal to a day.
+ * <p>
+ * Templates are computed once per restaurant and kept until its working times or the restaurant change,
+ * so checking whether a time can be booked does not query the database.
+ * <p>
+ * Every restaurant has a generation which is increased on eviction. Templates are only stored
+ * if the generation did not change while they were built, so templates built from working times
+ * that changed in the meantime are never kept.
+ */
+@Component
+public class SlotTemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotTemplateCache.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final WorkingTimeRepository workingTimeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final Map<Long, RestaurantTemplates> templates = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generations = new HashMap<>();
+
+    /**
+     * Instantiates a new Slot template cache.
+     *
+     * @param workingTimeRepository the {@link WorkingTimeRepository}
+     * @param restaurantRepository  the {@link RestaurantRepository}
+     */
+    @Autowired
+    public SlotTemplateCache(WorkingTimeRepository workingTimeRepository,
+                             RestaurantRepository restaurantRepository) {
+        this.workingTimeRepository = workingTimeRepository;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Gets the slot template of a restaurant for a day of the week.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param restaurantId the restaurant id
+     * @param dayOfWeek    the day of the week
+     * @return the sorted minute offsets of reservation start times, empty if the restaurant is closed
+     */
+    public int[] getSlots(long restaurantId,
+                          DayOfWeek dayOfWeek) {
+        return getTemplates(restaurantId).slots()[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * Gets the number of days a restaurant accepts reservations for.
+     *
+     * @param restaurantId the restaurant id
+     * @return the reservation days of the restaurant, {@code null} if not set or the restaurant does not exist
+     */
+    public Integer getReservationDays(long restaurantId) {
+        return getTemplates(restaurantId).reservationDays();
+    }
+
+    /**
+     * Evicts the templates of a restaurant.
+     * <p>
+     * When called inside a transaction, the templates are evicted once more after commit,
+     * so templates loaded concurrently from the old working times are not kept.
+     *
+     * @param restaurantId the restaurant id
+     */
+    public void evict(long restaurantId) {
+        logger.info("Evicting slot templates for restaurant id = {}", restaurantId);
+
+        doEvict(restaurantId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(restaurantId);
+                }
+            });
+        }
+    }
+
+    private RestaurantTemplates getTemplates(long restaurantId) {
+        RestaurantTemplates restaurantTemplates = templates.get(restaurantId);
+        if (restaurantTemplates == null) {
+            long generation = getGeneration(restaurantId);
+            restaurantTemplates = buildTemplates(restaurantId);
+            put(generation, restaurantId, restaurantTemplates);
+        }
+
+        return restaurantTemplates;
+    }
+
+    private synchronized long getGeneration(long restaurantId) {
+        return generations.getOrDefault(restaurantId, 0L);
+    }
+
+    private synchronized void put(long generation,
+                                  long restaurantId,
+                                  RestaurantTemplates restaurantTemplates) {
+        if (generation == getGeneration(restaurantId)) {
+            templates.put(restaurantId, restaurantTemplates);
+        }
+    }
+
+    private synchronized void doEvict(long restaurantId) {
+        generations.merge(restaurantId, 1L, Long::sum);
+        templates.remove(restaurantId);
+    }
+
+    private RestaurantTemplates buildTemplates(long restaurantId) {
+        logger.info("Building slot templates for restaurant id = {}", restaurantId);
+
+        Map<DayOfWeek, WorkingTime> workingTimeMap = workingTimeRepository.getWorkingTimeMap(restaurantId);
+
+        int[][] restaurantTemplates = new int[DayOfWeek.values().length][];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            WorkingTime workingTime = workingTimeMap.get(day);
+            restaurantTemplates[day.ordinal()] = workingTime == null ? NO_SLOTS : buildSlots(workingTime);
+        }
+
+        return new RestaurantTemplates(restaurantTemplates, restaurantRepository.getRestaurant(restaurantId)
+                .map(Restaurant::getReservationDays)
+                .orElse(null));
+    }
+
+    private static int[] buildSlots(WorkingTime workingTime) {
+        int open = workingTime.getOpenTime().toSecondOfDay() / 60;
+        int close = workingTime.getCloseTime().toSecondOfDay() / 60;
+        if (close <= open) close += MINUTES_PER_DAY;
+
+        int lastStart = close - ReservationService.RESERVATION_DURATION_OF_HOURS * 60;
+        if (lastStart < open) return NO_SLOTS;
+
+        int[] slots = new int[(lastStart - open) / ReservationService.MINUTES_INTERVAL + 1];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = open + i * ReservationService.MINUTES_INTERVAL;
+        }
+
+        return slots;
+    }
+
+    private record RestaurantTemplates(int[][] slots,
+                                       Integer reservationDays) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of closed time intervals stored as minutes of the epoch.
+ * <p>
+ * Intervals are sorted by start and keep a running maximum of ends, so overlap
+ * and next free gap queries take a binary search even if the intervals overlap each other.
+ * Intervals crossing midnight need no special handling, as days are not part of the representation.
+ */
+public class SortedIntervals {
+
+    private final long[] starts;
+    private final long[] maxEnds;
+
+    /**
+     * Instantiates new Sorted intervals.
+     *
+     * @param starts the interval starts
+     * @param ends   the interval ends, inclusive, at the same positions as the starts
+     */
+    public SortedIntervals(long[] starts,
+                           long[] ends) {
+        Integer[] order = new Integer[starts.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+        this.starts = new long[starts.length];
+        this.maxEnds = new long[starts.length];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < order.length; i++) {
+            this.starts[i] = starts[order[i]];
+            maxEnd = Math.max(maxEnd, ends[order[i]]);
+            this.maxEnds[i] = maxEnd;
+        }
+    }
+
+    /**
+     * Checks whether any interval overlaps a given closed interval.
+     *
+     * @param from the interval start
+     * @param to   the interval end, inclusive
+     * @return {@code true} if an interval overlaps, {@code false} otherwise
+     */
+    public boolean overlaps(long from,
+                            long to) {
+        int last = lastStartedBy(to);
+
+        return last >= 0 && maxEnds[last] >= from;
+    }
+
+    /**
+     * Finds the earliest start not before a given one for an interval of a given length
+     * that overlaps no interval.
+     *
+     * @param from   the earliest start
+     * @param length the interval length
+     * @return the earliest free start
+     */
+    public long nextFree(long from,
+                         long length) {
+        long start = from;
+        int last = lastStartedBy(start + length);
+        while (last >= 0 && maxEnds[last] >= start) {
+            start = maxEnds[last] + 1;
+            last = lastStartedBy(start + length);
+        }
+
+        return start;
+    }
+
+    private int lastStartedBy(long time) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return high;
+    }
+}
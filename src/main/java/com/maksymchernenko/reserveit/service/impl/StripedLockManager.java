@@ -0,0 +1,82 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking critical sections of the same {@link Restaurant}.
+ * <p>
+ * Keys are mapped to a fixed number of lock stripes, so operations of unrelated restaurants
+ * rarely wait for each other and the memory does not grow with the number of restaurants.
+ * The lock must be taken outside of the transaction, so a waiting operation sees the committed
+ * changes of the previous one.
+ * <p>
+ * Publishes the number of acquisitions as the {@code reserveit.booking.lock.acquisitions} counter
+ * and the wait time of contended acquisitions as the {@code reserveit.booking.lock.wait} timer,
+ * whose count is the number of contended acquisitions. Both are available at {@code /actuator/metrics}.
+ */
+@Component
+public class StripedLockManager {
+
+    private final ReentrantLock[] stripes;
+
+    private final Counter acquisitions;
+    private final Timer contendedWait;
+
+    /**
+     * Instantiates a new Striped lock manager.
+     *
+     * @param stripesNumber the number of lock stripes
+     * @param meterRegistry the registry of the lock metrics
+     */
+    @Autowired
+    public StripedLockManager(@Value("${reserveit.booking.lock.stripes:64}") int stripesNumber,
+                              MeterRegistry meterRegistry) {
+        this.stripes = new ReentrantLock[Math.max(1, stripesNumber)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        this.acquisitions = Counter.builder("reserveit.booking.lock.acquisitions")
+                .description("Number of booking lock acquisitions")
+                .register(meterRegistry);
+        this.contendedWait = Timer.builder("reserveit.booking.lock.wait")
+                .description("Wait time of booking lock acquisitions which found the lock held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executes an action holding the lock of a key.
+     *
+     * @param <T>    the result type
+     * @param key    the key, usually a restaurant id
+     * @param action the action
+     * @return the action result
+     */
+    public <T> T executeLocked(long key,
+                               Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(key * 0x9E3779B97F4A7C15L), stripes.length)];
+
+        if (!lock.tryLock()) {
+            long startedAt = System.nanoTime();
+            lock.lock();
+            contendedWait.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        acquisitions.increment();
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
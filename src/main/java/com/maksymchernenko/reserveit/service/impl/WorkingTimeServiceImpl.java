@@ -23,21 +23,32 @@ public class WorkingTimeServiceImpl implements WorkingTimeService {
     private static final Logger logger = LoggerFactory.getLogger(WorkingTimeServiceImpl.class);
 
     private final WorkingTimeRepository workingTimeRepository;
+    private final SlotTemplateCache slotTemplateCache;
+    private final AvailabilityCache availabilityCache;
 
     /**
      * Instantiates a new {@link WorkingTimeService}.
      *
      * @param workingTimeRepository the {@link WorkingTimeRepository}
+     * @param slotTemplateCache     the {@link SlotTemplateCache}
+     * @param availabilityCache     the {@link AvailabilityCache}
      */
     @Autowired
-    public WorkingTimeServiceImpl(WorkingTimeRepository workingTimeRepository) {
+    public WorkingTimeServiceImpl(WorkingTimeRepository workingTimeRepository,
+                                  SlotTemplateCache slotTemplateCache,
+                                  AvailabilityCache availabilityCache) {
         this.workingTimeRepository = workingTimeRepository;
+        this.slotTemplateCache = slotTemplateCache;
+        this.availabilityCache = availabilityCache;
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * Ensures that working times are not overlapping.
+     * <p>
+     * Evicts the restaurant slot templates from {@link SlotTemplateCache}
+     * and invalidates the cached availability of the restaurant.
      */
     @Transactional
     @Override
@@ -57,6 +68,8 @@ public class WorkingTimeServiceImpl implements WorkingTimeService {
         }
 
         workingTimeRepository.save(workingTime);
+        slotTemplateCache.evict(workingTime.getRestaurant().getId());
+        availabilityCache.invalidate(workingTime.getRestaurant().getId());
     }
 
     @Override
@@ -66,6 +79,12 @@ public class WorkingTimeServiceImpl implements WorkingTimeService {
         return workingTimeRepository.getWorkingTimeMap(restaurantId);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Evicts the restaurant slot templates from {@link SlotTemplateCache}
+     * and invalidates the cached availability of the restaurant.
+     */
     @Transactional
     @Override
     public void delete(long restaurantId,
@@ -75,5 +94,7 @@ public class WorkingTimeServiceImpl implements WorkingTimeService {
                 day);
 
         workingTimeRepository.delete(restaurantId, day);
+        slotTemplateCache.evict(restaurantId);
+        availabilityCache.invalidate(restaurantId);
     }
 }
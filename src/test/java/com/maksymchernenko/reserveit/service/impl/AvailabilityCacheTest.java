@@ -0,0 +1,84 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AvailabilityCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void entryExpiresAfterTimeToLive() {
+        AvailabilityCache cache = new AvailabilityCache(10, 60, nanos::get);
+        DayAvailability availability = availability(1, DAY);
+        cache.put(cache.getGeneration(1), availability);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertSame(availability, cache.get(1, 2, DAY));
+
+        nanos.incrementAndGet();
+        assertNull(cache.get(1, 2, DAY));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        AvailabilityCache cache = new AvailabilityCache(2, 60, nanos::get);
+        cache.put(0, availability(1, DAY));
+        cache.put(0, availability(1, DAY.plusDays(1)));
+
+        assertNotNull(cache.get(1, 2, DAY));
+        cache.put(0, availability(1, DAY.plusDays(2)));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1, 2, DAY));
+        assertNull(cache.get(1, 2, DAY.plusDays(1)));
+        assertNotNull(cache.get(1, 2, DAY.plusDays(2)));
+    }
+
+    @Test
+    void entryComputedBeforeInvalidationIsNotStored() {
+        AvailabilityCache cache = new AvailabilityCache(10, 60, nanos::get);
+        long generation = cache.getGeneration(1);
+
+        cache.invalidate(1);
+        cache.put(generation, availability(1, DAY));
+
+        assertNull(cache.get(1, 2, DAY));
+
+        cache.put(cache.getGeneration(1), availability(1, DAY));
+        assertNotNull(cache.get(1, 2, DAY));
+    }
+
+    @Test
+    void invalidationRemovesOnlyEntriesOfItsRestaurant() {
+        AvailabilityCache cache = new AvailabilityCache(10, 60, nanos::get);
+        cache.put(0, availability(1, DAY));
+        cache.put(0, availability(1, DAY.plusDays(1)));
+        cache.put(0, availability(2, DAY));
+
+        cache.invalidate(1);
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(1, 2, DAY));
+        assertNotNull(cache.get(2, 2, DAY));
+        assertEquals(0, cache.getGeneration(2));
+    }
+
+    private static DayAvailability availability(long restaurantId,
+                                                LocalDate day) {
+        return new DayAvailability(restaurantId, 2, day, List.of(), new int[]{600}, new BitSet());
+    }
+}
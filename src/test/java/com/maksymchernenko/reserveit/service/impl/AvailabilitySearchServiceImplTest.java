@@ -0,0 +1,115 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.dto.AvailableTimeDTO;
+import com.maksymchernenko.reserveit.model.dto.RestaurantAvailabilityDTO;
+import com.maksymchernenko.reserveit.service.ReservationService;
+import com.maksymchernenko.reserveit.service.RestaurantService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilitySearchServiceImplTest {
+
+    private static final LocalDateTime DINNER = LocalDate.now().plusDays(1).atTime(LocalTime.of(19, 0));
+
+    private final RestaurantService restaurantService = mock(RestaurantService.class);
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowRestaurantIsDroppedAndItsCheckInterrupted() throws InterruptedException {
+        Restaurant fast = restaurant(1, "Fast");
+        Restaurant slow = restaurant(2, "Slow");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(restaurantService.getAllRestaurants()).thenReturn(List.of(slow, fast));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(reservationService.getAvailableTimes(eq(fast), anyInt(), any(), any()))
+                .thenReturn(List.of(new AvailableTimeDTO(SlotOccupancyIndex.toEpochMinute(DINNER), 1)));
+        when(reservationService.getAvailableTimes(eq(slow), anyInt(), any(), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+
+            return List.of(new AvailableTimeDTO(SlotOccupancyIndex.toEpochMinute(DINNER), 1));
+        });
+        AvailabilitySearchServiceImpl searchService = new AvailabilitySearchServiceImpl(restaurantService,
+                reservationService,
+                executor,
+                transactionManager,
+                200);
+
+        List<RestaurantAvailabilityDTO> results = searchService.search(DINNER, 60, 2);
+
+        assertEquals(1, results.size());
+        assertSame(fast, results.get(0).getRestaurant());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectedRestaurantIsSkippedWithoutRunningInCallingThread() {
+        Restaurant rejected = restaurant(1, "Rejected");
+        Restaurant accepted = restaurant(2, "Accepted");
+        when(restaurantService.getAllRestaurants()).thenReturn(List.of(rejected, accepted));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(reservationService.getAvailableTimes(any(), anyInt(), any(), any()))
+                .thenReturn(List.of(new AvailableTimeDTO(SlotOccupancyIndex.toEpochMinute(DINNER), 1)));
+        AtomicInteger submissions = new AtomicInteger();
+        Executor saturated = command -> {
+            if (submissions.getAndIncrement() == 0) throw new RejectedExecutionException("Queue is full");
+
+            executor.execute(command);
+        };
+        AvailabilitySearchServiceImpl searchService = new AvailabilitySearchServiceImpl(restaurantService,
+                reservationService,
+                saturated,
+                transactionManager,
+                200);
+
+        List<RestaurantAvailabilityDTO> results = searchService.search(DINNER, 60, 2);
+
+        assertEquals(1, results.size());
+        assertSame(accepted, results.get(0).getRestaurant());
+        verify(reservationService, never()).getAvailableTimes(eq(rejected), anyInt(), any(), any());
+    }
+
+    private static Restaurant restaurant(long id,
+                                         String name) {
+        Restaurant restaurant = new Restaurant(name, "Address");
+        restaurant.setId(id);
+
+        return restaurant;
+    }
+}
@@ -0,0 +1,31 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BestFitTableAllocatorTest {
+
+    private final BestFitTableAllocator allocator = new BestFitTableAllocator();
+
+    @Test
+    void smallestSufficientTableIsChosen() {
+        List<RestaurantTable> freeTables = List.of(table(3, 2), table(1, 4), table(2, 4), table(4, 6));
+
+        assertEquals(1, allocator.allocate(freeTables, 3).orElseThrow().getNumber());
+        assertEquals(3, allocator.allocate(freeTables, 2).orElseThrow().getNumber());
+        assertTrue(allocator.allocate(freeTables, 7).isEmpty());
+    }
+
+    static RestaurantTable table(int number,
+                                 int seatsNumber) {
+        RestaurantTable table = new RestaurantTable(null, seatsNumber);
+        table.setNumber(number);
+
+        return table;
+    }
+}
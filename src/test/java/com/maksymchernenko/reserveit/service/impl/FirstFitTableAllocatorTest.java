@@ -0,0 +1,25 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.maksymchernenko.reserveit.service.impl.BestFitTableAllocatorTest.table;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FirstFitTableAllocatorTest {
+
+    private final FirstFitTableAllocator allocator = new FirstFitTableAllocator();
+
+    @Test
+    void lowestNumberedSufficientTableIsChosen() {
+        List<RestaurantTable> freeTables = List.of(table(3, 2), table(5, 4), table(2, 6), table(1, 8));
+
+        assertEquals(1, allocator.allocate(freeTables, 2).orElseThrow().getNumber());
+        assertEquals(1, allocator.allocate(freeTables, 6).orElseThrow().getNumber());
+        assertEquals(2, allocator.allocate(freeTables.subList(0, 3), 6).orElseThrow().getNumber());
+        assertTrue(allocator.allocate(freeTables, 9).isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedWheelTimerTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(TICK_MILLIS, 4, "test-timer");
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void timeoutInSameBucketWaitsForItsRounds() throws InterruptedException {
+        long startedAt = System.nanoTime();
+        AtomicLong laterFiredAfter = new AtomicLong();
+        CountDownLatch sooner = new CountDownLatch(1);
+        CountDownLatch later = new CountDownLatch(1);
+
+        timer.schedule(sooner::countDown, 2 * TICK_MILLIS);
+        timer.schedule(() -> {
+            laterFiredAfter.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            later.countDown();
+        }, 18 * TICK_MILLIS);
+
+        assertTrue(sooner.await(2, TimeUnit.SECONDS));
+        assertEquals(1, later.getCount());
+        assertTrue(later.await(2, TimeUnit.SECONDS));
+        assertTrue(laterFiredAfter.get() >= 17 * TICK_MILLIS);
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotRun() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch control = new CountDownLatch(1);
+
+        timer.schedule(cancelled::countDown, 3 * TICK_MILLIS).cancel();
+        timer.schedule(control::countDown, 6 * TICK_MILLIS);
+
+        assertTrue(control.await(2, TimeUnit.SECONDS));
+        assertFalse(cancelled.await(5 * TICK_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void failingTaskDoesNotStopTimer() throws InterruptedException {
+        CountDownLatch next = new CountDownLatch(1);
+
+        timer.schedule(() -> {
+            throw new IllegalStateException("Task failed");
+        }, TICK_MILLIS);
+        timer.schedule(next::countDown, 3 * TICK_MILLIS);
+
+        assertTrue(next.await(2, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,86 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.IdempotencyKey;
+import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+
+    private static final String KEY = "9b2f6c1e-0d4a-4c8e-9f3a-5e7d1b2c3a4f";
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final IdempotencyServiceImpl idempotencyService;
+
+    IdempotencyServiceImplTest() {
+        when(idempotencyKeyRepository.get(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, transactionManager, 100, 24);
+    }
+
+    @Test
+    void replayOfSameClientReturnsStoredOutcome() {
+        AtomicInteger executions = new AtomicInteger();
+        User client = client(1);
+
+        assertTrue(idempotencyService.execute(client, KEY, "reservation.create", () -> executions.incrementAndGet() > 0));
+        assertTrue(idempotencyService.execute(client, KEY, "reservation.create", () -> executions.incrementAndGet() > 0));
+        assertFalse(idempotencyService.execute(client, KEY, "reservation.edit.1", () -> executions.incrementAndGet() > 0));
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sameKeyOfAnotherClientIsExecutedAndStoredSeparately() {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertTrue(idempotencyService.execute(client(1), KEY, "reservation.create", () -> executions.incrementAndGet() > 0));
+        assertTrue(idempotencyService.execute(client(2), KEY, "reservation.create", () -> executions.incrementAndGet() > 0));
+
+        assertEquals(2, executions.get());
+        ArgumentCaptor<IdempotencyKey> stored = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository, times(2)).save(stored.capture());
+        assertEquals(1L, stored.getAllValues().get(0).getClientId());
+        assertEquals(2L, stored.getAllValues().get(1).getClientId());
+    }
+
+    @Test
+    void malformedKeyIsExecutedWithoutDeduplication() {
+        AtomicInteger executions = new AtomicInteger();
+        User client = client(1);
+        String tooLong = KEY + "-0000";
+
+        assertTrue(idempotencyService.execute(client, tooLong, "reservation.create", () -> executions.incrementAndGet() > 0));
+        assertTrue(idempotencyService.execute(client, tooLong, "reservation.create", () -> executions.incrementAndGet() > 0));
+        assertTrue(idempotencyService.execute(client, "not-a-uuid", "reservation.create", () -> executions.incrementAndGet() > 0));
+
+        assertEquals(3, executions.get());
+        verify(idempotencyKeyRepository, never()).save(any());
+    }
+
+    private static User client(long id) {
+        User client = new User();
+        client.setId(id);
+
+        return client;
+    }
+}
@@ -0,0 +1,48 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.dto.ReservationDTO;
+import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationExportServiceImplTest {
+
+    private static final LocalDateTime DINNER = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0);
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationExportServiceImpl exportService = new ReservationExportServiceImpl(reservationRepository, 0);
+
+    @Test
+    void formulaLikeValuesAreNeutralizedAndSpecialCharactersQuoted() throws IOException {
+        when(reservationRepository.streamByManagerAndPeriod(any(), any(), any(), anyInt())).thenReturn(Stream.of(
+                reservation("=SUM(A1)", "\tStreet", "\rAnna"),
+                reservation("Grill, Bar", "Main \"1\"", "@Bob")));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportCsv(null, null, null, outputStream);
+
+        assertEquals("id,restaurant,address,table,client,date_time,guests,status\r\n" +
+                        "1,'=SUM(A1),'\tStreet,3,\"'\rAnna\"," + DINNER + ",2,PENDING\r\n" +
+                        "1,\"Grill, Bar\",\"Main \"\"1\"\"\",3,'@Bob," + DINNER + ",2,PENDING\r\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    private static ReservationDTO reservation(String restaurantName,
+                                              String restaurantAddress,
+                                              String clientFirstName) {
+        return new ReservationDTO(1L, restaurantName, restaurantAddress, 3, clientFirstName, DINNER, 2,
+                Reservation.Status.PENDING);
+    }
+}
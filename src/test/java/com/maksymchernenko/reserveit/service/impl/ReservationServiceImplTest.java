@@ -0,0 +1,182 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Reservation;
+import com.maksymchernenko.reserveit.model.ReservationSlot;
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.RestaurantTable;
+import com.maksymchernenko.reserveit.model.User;
+import com.maksymchernenko.reserveit.model.dto.AvailableTimeDTO;
+import com.maksymchernenko.reserveit.model.dto.ReservationCursor;
+import com.maksymchernenko.reserveit.repository.ReservationRepository;
+import com.maksymchernenko.reserveit.repository.ReservationSlotRepository;
+import com.maksymchernenko.reserveit.repository.RestaurantTableRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationServiceImplTest {
+
+    private static final long RESTAURANT_ID = 1;
+    private static final LocalDateTime DINNER = LocalDate.now().plusDays(1).atTime(LocalTime.of(19, 0));
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationSlotRepository reservationSlotRepository = mock(ReservationSlotRepository.class);
+    private final RestaurantTableRepository restaurantTableRepository = mock(RestaurantTableRepository.class);
+    private final SlotTemplateCache slotTemplateCache = mock(SlotTemplateCache.class);
+    private final SlotHoldManager slotHoldManager = mock(SlotHoldManager.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BookingQueue bookingQueue = new BookingQueue(true, 64);
+    private final User client = new User();
+
+    private RestaurantTable table;
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        Restaurant restaurant = new Restaurant("Restaurant", "Address");
+        restaurant.setId(RESTAURANT_ID);
+        table = new RestaurantTable(restaurant, 4);
+        table.setId(10L);
+
+        AtomicLong ids = new AtomicLong();
+        when(reservationRepository.reserve(any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            Reservation reservation = new Reservation();
+            reservation.setId(ids.incrementAndGet());
+            reservation.setTable(invocation.getArgument(0));
+            reservation.setDayTime(invocation.getArgument(3));
+
+            return reservation;
+        });
+        when(restaurantTableRepository.getBySeatsNumber(RESTAURANT_ID, 2)).thenReturn(List.of(table));
+        when(slotTemplateCache.getSlots(anyLong(), any())).thenReturn(new int[]{1140, 1200, 1320});
+        when(slotTemplateCache.getReservationDays(anyLong())).thenReturn(3);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        reservationService = new ReservationServiceImpl(reservationRepository,
+                reservationSlotRepository,
+                restaurantTableRepository,
+                slotTemplateCache,
+                new AvailabilityCache(100, 60),
+                List.of(new BestFitTableAllocator()),
+                transactionManager,
+                3,
+                new StripedLockManager(4, new SimpleMeterRegistry()),
+                slotHoldManager,
+                bookingQueue,
+                20);
+    }
+
+    @Test
+    void queuedRequestsAreReservedInOneBatch() {
+        when(reservationSlotRepository.occupyAll(anyList())).thenReturn(true);
+        BookingQueue.BookingRequest first = bookingQueue.enqueue(RESTAURANT_ID, DINNER, 2, client, null);
+        BookingQueue.BookingRequest overlapping = bookingQueue.enqueue(RESTAURANT_ID, DINNER.plusHours(1), 2, client, null);
+
+        assertTrue(reservationService.reserve(RESTAURANT_ID, DINNER.plusHours(3), 2, client, null));
+
+        assertTrue(first.getResult());
+        assertFalse(overlapping.getResult());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(reservationRepository, times(2)).reserve(any(), any(), any(), any(), anyInt());
+        verify(reservationSlotRepository, never()).occupy(anyLong(), anyLong(), anyList());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReservationSlot>> slots = ArgumentCaptor.forClass(List.class);
+        verify(reservationSlotRepository).occupyAll(slots.capture());
+        assertEquals(2 * (SlotOccupancyIndex.RESERVATION_SLOTS + 1), slots.getValue().size());
+    }
+
+    @Test
+    void requestsAreReservedOneByOneAfterFailedBatch() {
+        when(reservationSlotRepository.occupyAll(anyList())).thenReturn(false);
+        when(restaurantTableRepository.getFreeTables(anyLong(), anyInt(), any(), any(), any())).thenReturn(List.of(table));
+        when(reservationSlotRepository.occupy(anyLong(), anyLong(), anyList())).thenReturn(true, false);
+        BookingQueue.BookingRequest first = bookingQueue.enqueue(RESTAURANT_ID, DINNER, 2, client, null);
+
+        assertFalse(reservationService.reserve(RESTAURANT_ID, DINNER.plusHours(3), 2, client, null));
+
+        assertTrue(first.getResult());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(reservationSlotRepository, times(2)).occupy(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void failureOfQueuedRequestIsRethrownToItsCaller() {
+        IllegalStateException failure = new IllegalStateException("Table query failed");
+        when(reservationSlotRepository.occupyAll(anyList())).thenThrow(failure);
+        when(restaurantTableRepository.getFreeTables(anyLong(), anyInt(), any(), any(), any()))
+                .thenThrow(failure)
+                .thenReturn(List.of(table));
+        when(reservationSlotRepository.occupy(anyLong(), anyLong(), anyList())).thenReturn(true);
+        BookingQueue.BookingRequest first = bookingQueue.enqueue(RESTAURANT_ID, DINNER, 2, client, null);
+
+        assertTrue(reservationService.reserve(RESTAURANT_ID, DINNER.plusHours(3), 2, client, null));
+
+        assertSame(failure, assertThrows(IllegalStateException.class, first::getResult));
+    }
+
+    @Test
+    void heldTablesAreSubtractedFromCachedAvailability() {
+        LocalDateTime from = DINNER.toLocalDate().atStartOfDay();
+        LocalDateTime to = from.plusDays(1).minusMinutes(1);
+        when(slotHoldManager.getHolds(RESTAURANT_ID)).thenReturn(List.of(new SlotHoldManager.SlotHold("hold",
+                RESTAURANT_ID,
+                table.getId(),
+                SlotOccupancyIndex.toEpochMinute(DINNER),
+                2L,
+                LocalDateTime.now().plusMinutes(1))));
+
+        List<AvailableTimeDTO> heldTimes = reservationService.getAvailableTimes(table.getRestaurant(), 2, from, to);
+
+        assertEquals(List.of(SlotOccupancyIndex.toEpochMinute(DINNER.plusHours(3))),
+                heldTimes.stream().map(AvailableTimeDTO::getEpochMinute).toList());
+
+        when(slotHoldManager.getHolds(RESTAURANT_ID)).thenReturn(List.of());
+
+        List<AvailableTimeDTO> freeTimes = reservationService.getAvailableTimes(table.getRestaurant(), 2, from, to);
+
+        assertEquals(3, freeTimes.size());
+        verify(reservationSlotRepository, times(1)).getByTablesAndPeriod(anyList(), eq(from.minusDays(1)), any());
+    }
+
+    @Test
+    void cursorWithUnknownStatusServesFirstPage() {
+        User manager = new User();
+        String tampered = new ReservationCursor("UNKNOWN", DINNER, 1).encode();
+        String valid = new ReservationCursor(Reservation.Status.RESERVED.name(), DINNER, 1).encode();
+
+        reservationService.getAll("status", manager, null, null, tampered, null);
+        reservationService.getAll("status", manager, null, null, null, valid);
+
+        verify(reservationRepository).getByManagerAndPeriod(eq(manager), any(), isNull(), eq("status"),
+                isNull(), eq(false), anyInt());
+        verify(reservationRepository).getByManagerAndPeriod(eq(manager), any(), isNull(), eq("status"),
+                any(ReservationCursor.class), eq(true), anyInt());
+    }
+}
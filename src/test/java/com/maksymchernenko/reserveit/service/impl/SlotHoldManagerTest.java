@@ -0,0 +1,74 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotHoldManagerTest {
+
+    private static final long RESTAURANT_ID = 1;
+    private static final long TABLE_ID = 10;
+    private static final long START = SlotOccupancyIndex.toEpochMinute(LocalDateTime.of(2025, 3, 14, 19, 0));
+
+    private final SlotHoldManager slotHoldManager = new SlotHoldManager(1, 10);
+    private final User client = user(1);
+    private final User otherClient = user(2);
+
+    @AfterEach
+    void tearDown() {
+        slotHoldManager.stop();
+    }
+
+    @Test
+    void holdBlocksOtherClientsUntilItExpires() throws InterruptedException {
+        SlotHoldManager.SlotHold hold = slotHoldManager.place(RESTAURANT_ID, TABLE_ID, START, client);
+
+        assertTrue(slotHoldManager.isHeld(RESTAURANT_ID, TABLE_ID, START + SlotOccupancyIndex.RESERVATION_MINUTES, otherClient));
+        assertFalse(slotHoldManager.isHeld(RESTAURANT_ID, TABLE_ID, START, client));
+        assertTrue(slotHoldManager.get(hold.id(), client).isPresent());
+        assertTrue(slotHoldManager.get(hold.id(), otherClient).isEmpty());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (slotHoldManager.get(hold.id(), client).isPresent() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(slotHoldManager.get(hold.id(), client).isEmpty());
+        assertFalse(slotHoldManager.isHeld(RESTAURANT_ID, TABLE_ID, START, otherClient));
+        assertTrue(slotHoldManager.getHolds(RESTAURANT_ID).isEmpty());
+    }
+
+    @Test
+    void newHoldOfClientReleasesPreviousOne() {
+        SlotHoldManager.SlotHold previous = slotHoldManager.place(RESTAURANT_ID, TABLE_ID, START, client);
+        SlotHoldManager.SlotHold hold = slotHoldManager.place(RESTAURANT_ID, TABLE_ID + 1, START, client);
+
+        assertTrue(slotHoldManager.get(previous.id(), client).isEmpty());
+        assertEquals(1, slotHoldManager.getHolds(RESTAURANT_ID).size());
+        assertEquals(hold, slotHoldManager.getHolds(RESTAURANT_ID).get(0));
+    }
+
+    @Test
+    void releasedHoldIsRemoved() {
+        SlotHoldManager.SlotHold hold = slotHoldManager.place(RESTAURANT_ID, TABLE_ID, START, client);
+
+        slotHoldManager.release(hold.id());
+
+        assertTrue(slotHoldManager.get(hold.id(), client).isEmpty());
+        assertFalse(slotHoldManager.isHeld(RESTAURANT_ID, TABLE_ID, START, otherClient));
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+
+        return user;
+    }
+}
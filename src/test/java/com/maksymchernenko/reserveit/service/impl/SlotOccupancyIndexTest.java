@@ -0,0 +1,115 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotOccupancyIndexTest {
+
+    private static final long TABLE_ID = 7;
+    private static final LocalDateTime TEN = LocalDateTime.of(2025, 3, 14, 10, 0);
+
+    @Test
+    void reservationTouchingAtTwoHourBoundaryIsNotFree() {
+        SlotOccupancyIndex index = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        index.occupy(TABLE_ID, TEN);
+
+        assertFalse(index.isFree(TABLE_ID, minute(TEN.plusHours(2))));
+        assertFalse(index.isFree(TABLE_ID, minute(TEN.minusHours(2))));
+        assertTrue(index.isFree(TABLE_ID, minute(TEN.plusHours(2).plusMinutes(15))));
+        assertTrue(index.isFree(TABLE_ID, minute(TEN.minusHours(2).minusMinutes(15))));
+    }
+
+    @Test
+    void reservationCrossingMidnightOccupiesNextDay() {
+        LocalDateTime lateEvening = LocalDateTime.of(2025, 3, 14, 23, 0);
+        SlotOccupancyIndex index = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        index.occupy(TABLE_ID, lateEvening);
+
+        assertFalse(index.isFree(TABLE_ID, minute(LocalDateTime.of(2025, 3, 15, 0, 30))));
+        assertFalse(index.isFree(TABLE_ID, minute(LocalDateTime.of(2025, 3, 15, 1, 0))));
+        assertTrue(index.isFree(TABLE_ID, minute(LocalDateTime.of(2025, 3, 15, 1, 15))));
+        assertEquals(minute(LocalDateTime.of(2025, 3, 15, 1, 0)) + 1,
+                index.nextFreeStart(TABLE_ID, minute(LocalDateTime.of(2025, 3, 14, 22, 0))));
+    }
+
+    @Test
+    void overlappingLegacyReservationsKeepTableOccupied() {
+        SlotOccupancyIndex index = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        index.occupy(TABLE_ID, TEN);
+        index.occupy(TABLE_ID, TEN.plusMinutes(30));
+        index.occupy(TABLE_ID, TEN.plusHours(1));
+
+        assertFalse(index.isFree(TABLE_ID, minute(TEN.plusHours(3))));
+        assertTrue(index.isFree(TABLE_ID, minute(TEN.plusHours(3).plusMinutes(15))));
+        assertEquals(minute(TEN.plusHours(3)) + 1, index.nextFreeStart(TABLE_ID, minute(TEN)));
+    }
+
+    @Test
+    void nextFreeStartReturnsStartOfFreeTableAndMaxValueOfUnknownTable() {
+        SlotOccupancyIndex index = new SlotOccupancyIndex(new long[]{TABLE_ID});
+
+        assertEquals(minute(TEN), index.nextFreeStart(TABLE_ID, minute(TEN)));
+        assertEquals(Long.MAX_VALUE, index.nextFreeStart(TABLE_ID + 1, minute(TEN)));
+        assertFalse(index.isFree(TABLE_ID + 1, minute(TEN)));
+    }
+
+    @Test
+    void releasedReservationFreesTableAfterIndexWasQueried() {
+        SlotOccupancyIndex index = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        index.occupy(TABLE_ID, TEN);
+        index.occupy(TABLE_ID, TEN.plusHours(4));
+        assertFalse(index.isFree(TABLE_ID, minute(TEN.plusHours(1))));
+
+        assertTrue(index.release(TABLE_ID, minute(TEN)));
+        assertFalse(index.release(TABLE_ID, minute(TEN)));
+        assertFalse(index.release(TABLE_ID + 1, minute(TEN)));
+
+        assertTrue(index.isFree(TABLE_ID, minute(TEN.plusHours(1))));
+        assertFalse(index.isFree(TABLE_ID, minute(TEN.plusHours(3))));
+    }
+
+    @Test
+    void reservationOccupiedAfterIndexWasQueriedIsIndexed() {
+        SlotOccupancyIndex index = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        assertTrue(index.isFree(TABLE_ID, minute(TEN)));
+
+        index.occupy(TABLE_ID, TEN.plusHours(1));
+
+        assertFalse(index.isFree(TABLE_ID, minute(TEN)));
+    }
+
+    @Test
+    void occupiedSlotStartsBlockLikeReservationInterval() {
+        SlotOccupancyIndex slotIndex = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        for (LocalDateTime slotStart : SlotOccupancyIndex.getSlotStarts(TEN)) {
+            slotIndex.occupy(TABLE_ID, minute(slotStart), minute(slotStart));
+        }
+        SlotOccupancyIndex reservationIndex = new SlotOccupancyIndex(new long[]{TABLE_ID});
+        reservationIndex.occupy(TABLE_ID, TEN);
+
+        for (LocalDateTime start = TEN.minusHours(3); start.isBefore(TEN.plusHours(3)); start = start.plusMinutes(15)) {
+            assertEquals(reservationIndex.isFree(TABLE_ID, minute(start)), slotIndex.isFree(TABLE_ID, minute(start)));
+        }
+        assertEquals(reservationIndex.nextFreeStart(TABLE_ID, minute(TEN.minusHours(1))),
+                slotIndex.nextFreeStart(TABLE_ID, minute(TEN.minusHours(1))));
+    }
+
+    @Test
+    void slotStartsAreAlignedAndCoverReservation() {
+        List<LocalDateTime> slotStarts = SlotOccupancyIndex.getSlotStarts(LocalDateTime.of(2025, 3, 14, 23, 10));
+
+        assertEquals(SlotOccupancyIndex.RESERVATION_SLOTS + 1, slotStarts.size());
+        assertEquals(LocalDateTime.of(2025, 3, 14, 23, 0), slotStarts.get(0));
+        assertEquals(LocalDateTime.of(2025, 3, 15, 1, 0), slotStarts.get(slotStarts.size() - 1));
+    }
+
+    private static long minute(LocalDateTime dateTime) {
+        return SlotOccupancyIndex.toEpochMinute(dateTime);
+    }
+}
@@ -0,0 +1,103 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import com.maksymchernenko.reserveit.model.Restaurant;
+import com.maksymchernenko.reserveit.model.WorkingTime;
+import com.maksymchernenko.reserveit.repository.RestaurantRepository;
+import com.maksymchernenko.reserveit.repository.WorkingTimeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotTemplateCacheTest {
+
+    private static final long RESTAURANT_ID = 1;
+
+    private final WorkingTimeRepository workingTimeRepository = mock(WorkingTimeRepository.class);
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final SlotTemplateCache slotTemplateCache = new SlotTemplateCache(workingTimeRepository, restaurantRepository);
+
+    @Test
+    void templatesAreBuiltOnceAndRebuiltAfterEviction() {
+        when(workingTimeRepository.getWorkingTimeMap(RESTAURANT_ID))
+                .thenReturn(workingTimes(LocalTime.of(10, 0), LocalTime.of(12, 30)));
+
+        assertArrayEquals(new int[]{600, 615, 630}, slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY));
+        assertArrayEquals(new int[0], slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.TUESDAY));
+        verify(workingTimeRepository, times(1)).getWorkingTimeMap(RESTAURANT_ID);
+
+        slotTemplateCache.evict(RESTAURANT_ID);
+        slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY);
+
+        verify(workingTimeRepository, times(2)).getWorkingTimeMap(RESTAURANT_ID);
+    }
+
+    @Test
+    void templatesLoadedBeforeConcurrentEvictionAreNotKept() {
+        Map<DayOfWeek, WorkingTime> oldWorkingTimes = workingTimes(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        Map<DayOfWeek, WorkingTime> newWorkingTimes = workingTimes(LocalTime.of(18, 0), LocalTime.of(20, 0));
+        when(workingTimeRepository.getWorkingTimeMap(RESTAURANT_ID))
+                .thenAnswer(invocation -> {
+                    slotTemplateCache.evict(RESTAURANT_ID);
+
+                    return oldWorkingTimes;
+                })
+                .thenReturn(newWorkingTimes);
+
+        assertArrayEquals(new int[]{600}, slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY));
+        assertArrayEquals(new int[]{1080}, slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY));
+        assertArrayEquals(new int[]{1080}, slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY));
+        verify(workingTimeRepository, times(2)).getWorkingTimeMap(RESTAURANT_ID);
+    }
+
+    @Test
+    void overnightTemplateContinuesPastMidnight() {
+        when(workingTimeRepository.getWorkingTimeMap(RESTAURANT_ID))
+                .thenReturn(workingTimes(LocalTime.of(22, 0), LocalTime.of(2, 30)));
+
+        int[] slots = slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY);
+
+        assertEquals(11, slots.length);
+        assertEquals(22 * 60, slots[0]);
+        assertEquals(24 * 60 + 30, slots[slots.length - 1]);
+    }
+
+    @Test
+    void reservationDaysAreCachedWithTemplates() {
+        Restaurant restaurant = new Restaurant("Restaurant", "Address");
+        restaurant.setReservationDays(14);
+        when(workingTimeRepository.getWorkingTimeMap(RESTAURANT_ID)).thenReturn(Map.of());
+        when(restaurantRepository.getRestaurant(RESTAURANT_ID)).thenReturn(Optional.of(restaurant));
+
+        assertEquals(14, slotTemplateCache.getReservationDays(RESTAURANT_ID));
+        assertArrayEquals(new int[0], slotTemplateCache.getSlots(RESTAURANT_ID, DayOfWeek.MONDAY));
+        assertEquals(14, slotTemplateCache.getReservationDays(RESTAURANT_ID));
+        verify(restaurantRepository, times(1)).getRestaurant(RESTAURANT_ID);
+
+        restaurant.setReservationDays(null);
+        slotTemplateCache.evict(RESTAURANT_ID);
+
+        assertNull(slotTemplateCache.getReservationDays(RESTAURANT_ID));
+        verify(restaurantRepository, times(2)).getRestaurant(RESTAURANT_ID);
+    }
+
+    private static Map<DayOfWeek, WorkingTime> workingTimes(LocalTime openTime,
+                                                           LocalTime closeTime) {
+        WorkingTime workingTime = new WorkingTime();
+        workingTime.setDayOfWeek(DayOfWeek.MONDAY);
+        workingTime.setOpenTime(openTime);
+        workingTime.setCloseTime(closeTime);
+
+        return Map.of(DayOfWeek.MONDAY, workingTime);
+    }
+}
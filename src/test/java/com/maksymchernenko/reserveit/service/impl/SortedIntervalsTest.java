@@ -0,0 +1,47 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedIntervalsTest {
+
+    @Test
+    void emptyIntervalsOverlapNothing() {
+        SortedIntervals intervals = new SortedIntervals(new long[0], new long[0]);
+
+        assertFalse(intervals.overlaps(0, 120));
+        assertEquals(42, intervals.nextFree(42, 120));
+    }
+
+    @Test
+    void touchingIntervalsOverlap() {
+        SortedIntervals intervals = new SortedIntervals(new long[]{600}, new long[]{720});
+
+        assertTrue(intervals.overlaps(720, 840));
+        assertTrue(intervals.overlaps(480, 600));
+        assertFalse(intervals.overlaps(721, 841));
+        assertFalse(intervals.overlaps(479, 599));
+    }
+
+    @Test
+    void intervalNestedInLongerOneIsCoveredByRunningMaximum() {
+        SortedIntervals intervals = new SortedIntervals(new long[]{10, 0, 400}, new long[]{20, 300, 410});
+
+        assertTrue(intervals.overlaps(250, 260));
+        assertTrue(intervals.overlaps(300, 350));
+        assertFalse(intervals.overlaps(301, 399));
+    }
+
+    @Test
+    void nextFreeSkipsConsecutiveIntervals() {
+        SortedIntervals intervals = new SortedIntervals(new long[]{230, 100}, new long[]{350, 220});
+
+        assertEquals(351, intervals.nextFree(0, 120));
+        assertEquals(0, intervals.nextFree(0, 99));
+        assertEquals(221, intervals.nextFree(95, 8));
+        assertEquals(500, intervals.nextFree(500, 120));
+    }
+}
@@ -0,0 +1,56 @@
+package com.maksymchernenko.reserveit.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLockManagerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StripedLockManager lockManager = new StripedLockManager(1, meterRegistry);
+
+    @Test
+    void uncontendedAcquisitionIsCountedWithoutWait() {
+        assertEquals(42, lockManager.executeLocked(1, () -> 42));
+
+        assertEquals(1, meterRegistry.get("reserveit.booking.lock.acquisitions").counter().count());
+        assertEquals(0, meterRegistry.get("reserveit.booking.lock.wait").timer().count());
+    }
+
+    @Test
+    void contendedAcquisitionRecordsWait() throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> lockManager.executeLocked(1, () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return null;
+        }));
+        holder.start();
+        assertTrue(locked.await(1, TimeUnit.SECONDS));
+
+        Thread waiter = new Thread(() -> lockManager.executeLocked(2, () -> null));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+        release.countDown();
+        waiter.join(1000);
+        holder.join(1000);
+
+        assertEquals(2, meterRegistry.get("reserveit.booking.lock.acquisitions").counter().count());
+        assertEquals(1, meterRegistry.get("reserveit.booking.lock.wait").timer().count());
+        assertTrue(meterRegistry.get("reserveit.booking.lock.wait").timer().totalTime(TimeUnit.MILLISECONDS) >= 20);
+    }
+}